@@ -0,0 +1,204 @@
+package study.querydsl.mapper;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @QueryProjection 생성자마다 XxxMapper 클래스를 만듬 (예: MemberTeamDto -> MemberTeamDtoMapper)
+ *
+ * QMemberTeamDto(ConstructorExpression)나 Projections.bean/fields/constructor는 행마다 리플렉션으로
+ * 생성자를 찾아 부르거나 필드를 채우는데, 생성된 매퍼는 newInstance에서 생성자를 직접 호출함
+ *
+ * MemberTeamDtoMapper.projection(member.id, member.username, ...) 처럼 Q타입 생성자 자리에 그대로 씀
+ * JPA(JPAQuery), SQL(SQLQuery) 어느 쪽이든 FactoryExpression이면 되므로 둘 다 사용 가능
+ *
+ * querydsl 의존성 없이 애노테이션 이름으로만 찾고, 생성하는 코드만 querydsl-core를 씀
+ */
+@SupportedAnnotationTypes(ProjectionMapperProcessor.QUERY_PROJECTION)
+public class ProjectionMapperProcessor extends AbstractProcessor {
+
+    static final String QUERY_PROJECTION = "com.querydsl.core.annotations.QueryProjection";
+
+    private static final String MAPPER_SUFFIX = "Mapper";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, List<ExecutableElement>> constructors = new LinkedHashMap<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CONSTRUCTOR) {
+                    continue;
+                }
+                TypeElement dto = (TypeElement) element.getEnclosingElement();
+                constructors.computeIfAbsent(dto, key -> new ArrayList<>()).add((ExecutableElement) element);
+            }
+        }
+
+        for (Map.Entry<TypeElement, List<ExecutableElement>> entry : constructors.entrySet()) {
+            String mapperName = entry.getKey().getQualifiedName() + MAPPER_SUFFIX;
+            //compileQuerydsl 쪽에서 이미 만들었으면 건너뜀
+            if (processingEnv.getElementUtils().getTypeElement(mapperName) != null) {
+                continue;
+            }
+            write(entry.getKey(), mapperName, entry.getValue());
+        }
+        //@QueryProjection은 querydsl 프로세서도 처리하므로 가져가지 않음
+        return false;
+    }
+
+    private void write(TypeElement dto, String mapperName, List<ExecutableElement> constructors) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(dto);
+        String packageName = pkg.getQualifiedName().toString();
+        String simpleName = dto.getSimpleName() + MAPPER_SUFFIX;
+        String dtoName = dto.getQualifiedName().toString();
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("/**\n")
+                .append(" * ").append(dto.getSimpleName()).append(" 리플렉션 없는 프로젝션, ")
+                .append(ProjectionMapperProcessor.class.getSimpleName()).append("가 생성\n")
+                .append(" */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(ProjectionMapperProcessor.class.getName())
+                .append("\")\n")
+                .append("public final class ").append(simpleName).append(" {\n\n")
+                .append("    private ").append(simpleName).append("() {\n    }\n");
+
+        //생성자가 여러 개면 파라미터 수가 같을때 겹치지 않게 두번째부터 번호를 붙임
+        for (int i = 0; i < constructors.size(); i++) {
+            writeConstructor(src, dtoName, i == 0 ? "" : String.valueOf(i), constructors.get(i));
+        }
+        src.append("}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(mapperName, dto);
+            try (Writer writer = file.openWriter()) {
+                writer.write(src.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "매퍼 생성 실패: " + mapperName + ", " + e.getMessage(), dto);
+        }
+    }
+
+    private void writeConstructor(StringBuilder src, String dtoName, String suffix,
+                                  ExecutableElement constructor) {
+        List<? extends VariableElement> params = constructor.getParameters();
+        String projectionName = "Projection" + suffix;
+        String mapName = "map" + suffix;
+
+        //public static FactoryExpression<Dto> projection(Expression<? extends A> a, ...)
+        src.append("\n    public static com.querydsl.core.types.FactoryExpression<").append(dtoName)
+                .append("> projection").append(suffix).append("(");
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) {
+                src.append(", ");
+            }
+            src.append("com.querydsl.core.types.Expression<? extends ").append(boxed(params.get(i).asType()))
+                    .append("> ").append(params.get(i).getSimpleName());
+        }
+        src.append(") {\n        return new ").append(projectionName).append("(");
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) {
+                src.append(", ");
+            }
+            src.append(params.get(i).getSimpleName());
+        }
+        src.append(");\n    }\n");
+
+        //행 값 배열 -> DTO, 생성자 직접 호출
+        src.append("\n    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public static ").append(dtoName).append(" ").append(mapName).append("(Object... row) {\n")
+                .append("        return new ").append(dtoName).append("(");
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) {
+                src.append(",\n                ");
+            }
+            TypeMirror type = params.get(i).asType();
+            if (type.getKind().isPrimitive()) {
+                //null이면 기본값, ConstructorExpression과 같게
+                src.append("row[").append(i).append("] == null ? ").append(defaultValue(type))
+                        .append(" : (").append(boxed(type)).append(") row[").append(i).append("]");
+            } else {
+                src.append("(").append(boxed(type)).append(") row[").append(i).append("]");
+            }
+        }
+        src.append(");\n    }\n");
+
+        src.append("\n    private static final class ").append(projectionName)
+                .append(" extends com.querydsl.core.types.FactoryExpressionBase<").append(dtoName).append("> {\n\n")
+                .append("        private static final long serialVersionUID = 1L;\n\n")
+                .append("        private final java.util.List<com.querydsl.core.types.Expression<?>> args;\n\n")
+                .append("        private ").append(projectionName)
+                .append("(com.querydsl.core.types.Expression<?>... args) {\n")
+                .append("            super(").append(dtoName).append(".class);\n")
+                .append("            this.args = java.util.Collections.unmodifiableList(java.util.Arrays.asList(args));\n")
+                .append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public java.util.List<com.querydsl.core.types.Expression<?>> getArgs() {\n")
+                .append("            return args;\n")
+                .append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public ").append(dtoName).append(" newInstance(Object... row) {\n")
+                .append("            return ").append(mapName).append("(row);\n")
+                .append("        }\n\n")
+                .append("        @Override\n")
+                .append("        public <R, C> R accept(com.querydsl.core.types.Visitor<R, C> v, C context) {\n")
+                .append("            return v.visit(this, context);\n")
+                .append("        }\n")
+                .append("    }\n");
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private String defaultValue(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "false";
+            case CHAR:
+                return "'\\0'";
+            case LONG:
+                return "0L";
+            case FLOAT:
+                return "0F";
+            case DOUBLE:
+                return "0D";
+            case BYTE:
+                return "(byte) 0";
+            case SHORT:
+                return "(short) 0";
+            default:
+                return "0";
+        }
+    }
+}
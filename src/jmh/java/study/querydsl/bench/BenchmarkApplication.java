@@ -0,0 +1,67 @@
+package study.querydsl.bench;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.config.SeedProperties;
+import study.querydsl.seed.MemberSeeder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 벤치마크용 스프링 컨텍스트
+ * 웹서버 없이 인메모리 H2로 띄우고 MemberSeeder로 원하는 수만큼 회원을 넣음
+ * SQL 로그, p6spy, 검색 결과 캐시, 쿼리 캐시는 꺼서 db까지 가는 경로를 그대로 잼
+ */
+public final class BenchmarkApplication {
+
+    /** 회원 검색 조건에 쓰는 팀 수, teamA ~ teamJ */
+    public static final int TEAMS = 10;
+
+    public static final String H2_URL = "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        return startOn(H2_URL, extraArgs);
+    }
+
+    /** 같은 키를 인자로 두 번 주면 값이 콤마로 합쳐지므로 url은 따로 받음 */
+    public static ConfigurableApplicationContext startOn(String url, String... extraArgs) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.profiles.active=bench",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=sa",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--logging.level.org.hibernate.type=warn",
+                "--querydsl.search.cache.methods="));
+        args.addAll(Arrays.asList(extraArgs));
+
+        return new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+
+    /** 나이는 0~99 균등 분포, 팀은 번갈아 배정 */
+    public static void seed(ConfigurableApplicationContext context, int rows) {
+        SeedProperties properties = new SeedProperties();
+        properties.setMembers(rows);
+        properties.setTeams(TEAMS);
+        properties.setAgeDistribution(SeedProperties.AgeDistribution.UNIFORM);
+        properties.setAgeMin(0);
+        properties.setAgeMax(99);
+        properties.setFlushSize(5_000);
+        properties.setThreads(Runtime.getRuntime().availableProcessors());
+
+        context.getBean(MemberSeeder.class).seed(properties);
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.CountStrategy;
+import study.querydsl.dto.CountedPage;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * offset 페이징(searchPage)과 id 먼저 조회하는 페이징(searchPageIdsFirst) 비교
+ * offset 0, 1만, 100만에서 한 페이지(20건) 조회 시간, 카운트는 빼고(NONE) 컨텐츠 조회만 잼
+ * 100만 offset 때문에 회원을 110만명 넣으므로 준비에 시간이 걸림
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class DeepPageBenchmark {
+
+    private static final int ROWS = 1_100_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "10000", "1000000"})
+    int offset;
+
+    /** 조건 없음, 나이 범위(전체의 절반) */
+    @Param({"none", "age"})
+    String filter;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    MemberSearchCondition condition;
+    PageRequest page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, ROWS);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        condition = new MemberSearchCondition();
+        if ("age".equals(filter)) {
+            condition.setAgeGoe(50);
+        }
+        //age 조건이면 50만명 정도라 100만 offset은 빈 페이지가 되므로 범위 안으로 맞춤
+        int effectiveOffset = "age".equals(filter) ? Math.min(offset, ROWS / 2 - PAGE_SIZE) : offset;
+        page = PageRequest.of(effectiveOffset / PAGE_SIZE, PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CountedPage<MemberTeamDto> offsetPage() {
+        return memberRepository.searchPage(condition, page, CountStrategy.NONE);
+    }
+
+    @Benchmark
+    public CountedPage<MemberTeamDto> idsFirstPage() {
+        return memberRepository.searchPageIdsFirst(condition, page, CountStrategy.NONE);
+    }
+}
@@ -0,0 +1,85 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 10만명을 영속성 컨텍스트에 올려두고 flush 한 번에 걸리는 시간
+ * modified: 전부 나이를 바꿈(변경 감지 + update 10만건), unmodified: 아무것도 안 바꿈(변경 감지만)
+ *
+ * 바이트코드 향상은 빌드 시점에 적용되므로 두 번 돌려서 비교
+ * ./gradlew jmh -PjmhInclude=FlushBenchmark
+ * ./gradlew clean jmh -PjmhInclude=FlushBenchmark -PhibernateEnhance=false
+ * 적용 여부는 EntityEnhancementTest로 확인(-PhibernateEnhance=false면 건너뜀)
+ *
+ * 로딩, 수정은 매 호출 전(Level.Invocation)에 하고 flush만 잼, 끝나면 롤백
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class FlushBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"modified", "unmodified"})
+    String change;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, ROWS);
+        emf = context.getBean(EntityManagerFactory.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void load() {
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+        if ("modified".equals(change)) {
+            for (Member member : members) {
+                member.setAge(member.getAge() + 1);
+            }
+        }
+    }
+
+    @Benchmark
+    public void flush() {
+        em.flush();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
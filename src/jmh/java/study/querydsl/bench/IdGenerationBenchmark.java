@@ -0,0 +1,103 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 insert 처리량, 호출마다 팀 10개 + 회원 1000명을 persist하고 flush, 끝나면 롤백
+ * incrementSize: 1이면 persist마다 시퀀스 조회, 50/1000이면 그만큼 한 번에 받아옴(pooled-lo)
+ *
+ * db: h2(시퀀스), mysql(H2 MySQL 모드 + MySQL8Dialect)
+ * MySQL은 시퀀스가 없어서 하이버네이트가 시퀀스 이름과 같은 테이블을 select for update + update로 올림
+ * 그 조회가 별도 트랜잭션(커넥션)에서 나가므로 시퀀스보다 비쌈, 실제 MySQL 수치는 url만 바꿔서 확인
+ *
+ * ./gradlew jmh -PjmhInclude=IdGenerationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class IdGenerationBenchmark {
+
+    private static final int MEMBERS = 1_000;
+
+    private static final int TEAMS = 10;
+
+    @Param({"h2", "mysql"})
+    String db;
+
+    @Param({"1", "50", "1000"})
+    int incrementSize;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+
+    EntityManager em;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] sizes = {
+                "--querydsl.id.default-increment-size=" + incrementSize,
+                "--querydsl.id.increment-size[member_seq]=" + incrementSize,
+                "--querydsl.id.increment-size[team_seq]=" + incrementSize};
+        if ("mysql".equals(db)) {
+            String[] args = Arrays.copyOf(sizes, sizes.length + 1);
+            args[sizes.length] = "--spring.jpa.database-platform=org.hibernate.dialect.MySQL8Dialect";
+            context = BenchmarkApplication.startOn("jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1", args);
+        } else {
+            context = BenchmarkApplication.start(sizes);
+        }
+        emf = context.getBean(EntityManagerFactory.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void begin() {
+        em = emf.createEntityManager();
+        em.getTransaction().begin();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MEMBERS)
+    public void insert() {
+        Team[] teams = new Team[TEAMS];
+        for (int i = 0; i < TEAMS; i++) {
+            teams[i] = new Team("team" + i);
+            em.persist(teams[i]);
+        }
+        for (int i = 0; i < MEMBERS; i++) {
+            em.persist(new Member("member" + i, i % 100, teams[i % TEAMS]));
+        }
+        em.flush();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,97 @@
+package study.querydsl.bench;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Projections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberDtoMapper;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamDtoMapper;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 행 하나를 DTO로 만드는 비용만 비교, db 없이 FactoryExpression.newInstance를 직접 호출
+ * 쿼리 결과 한 행마다 이만큼 듬, gc 프로파일러의 gc.alloc.rate.norm이 행당 할당량
+ *
+ * queryProjection: @QueryProjection Q타입(ConstructorExpression, 리플렉션으로 생성자 호출)
+ * generated: ProjectionMapperProcessor가 만든 매퍼(생성자 직접 호출)
+ * constructor/bean/fields: Projections.constructor/bean/fields
+ * MemberTeamDto는 기본 생성자가 없어서 bean/fields는 MemberDto로만
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ProjectionMapperBenchmark {
+
+    final Object[] memberTeamRow = {1L, "member1", 10, 2L, "teamA"};
+    final Object[] memberRow = {"member1", 10};
+
+    final FactoryExpression<MemberTeamDto> memberTeamQueryProjection =
+            new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name);
+    final FactoryExpression<MemberTeamDto> memberTeamGenerated =
+            MemberTeamDtoMapper.projection(member.id, member.username, member.age, team.id, team.name);
+    final FactoryExpression<MemberTeamDto> memberTeamConstructor =
+            Projections.constructor(MemberTeamDto.class, member.id, member.username, member.age, team.id, team.name);
+
+    final FactoryExpression<MemberDto> memberQueryProjection = new QMemberDto(member.username, member.age);
+    final FactoryExpression<MemberDto> memberGenerated = MemberDtoMapper.projection(member.username, member.age);
+    final FactoryExpression<MemberDto> memberConstructor =
+            Projections.constructor(MemberDto.class, member.username, member.age);
+    final FactoryExpression<MemberDto> memberBean = Projections.bean(MemberDto.class, member.username, member.age);
+    final FactoryExpression<MemberDto> memberFields = Projections.fields(MemberDto.class, member.username, member.age);
+
+    @Benchmark
+    public MemberTeamDto memberTeamQueryProjection() {
+        return memberTeamQueryProjection.newInstance(memberTeamRow);
+    }
+
+    @Benchmark
+    public MemberTeamDto memberTeamGenerated() {
+        return memberTeamGenerated.newInstance(memberTeamRow);
+    }
+
+    @Benchmark
+    public MemberTeamDto memberTeamConstructor() {
+        return memberTeamConstructor.newInstance(memberTeamRow);
+    }
+
+    @Benchmark
+    public MemberDto memberQueryProjection() {
+        return memberQueryProjection.newInstance(memberRow);
+    }
+
+    @Benchmark
+    public MemberDto memberGenerated() {
+        return memberGenerated.newInstance(memberRow);
+    }
+
+    @Benchmark
+    public MemberDto memberConstructor() {
+        return memberConstructor.newInstance(memberRow);
+    }
+
+    @Benchmark
+    public MemberDto memberBean() {
+        return memberBean.newInstance(memberRow);
+    }
+
+    @Benchmark
+    public MemberDto memberFields() {
+        return memberFields.newInstance(memberRow);
+    }
+}
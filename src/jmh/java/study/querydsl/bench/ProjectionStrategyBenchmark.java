@@ -0,0 +1,133 @@
+package study.querydsl.bench;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberDtoMapper;
+import study.querydsl.dto.QMemberDto;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * QuerydslBasicTest의 DTO 조회 방식들을 회원 전체(username, age)를 MemberDto로 읽는 같은 쿼리로 비교
+ * 쿼리와 db 시간은 같고, 차이는 행마다 DTO를 만드는 방식(리플렉션, setter, 필드 접근, 중간 Tuple)
+ *
+ * jpqlNew: JPQL new 연산자(findDtoByJPQL)
+ * setter: Projections.bean(findDtoBySetter)
+ * field: Projections.fields(findDtoByField)
+ * constructor: Projections.constructor(findDtoByConstructer)
+ * queryProjection: @QueryProjection Q타입(findDtoByQueryProjection)
+ * tuple: Tuple로 받아서 직접 MemberDto로 옮김(tupleProjection)
+ * generatedMapper: ProjectionMapperProcessor가 만든 MemberDtoMapper
+ *
+ * ./gradlew jmh -PjmhInclude=ProjectionStrategy jmhReport
+ * gc 프로파일러의 gc.alloc.rate.norm이 호출(rows 행)당 할당량, jmhReport가 방식별로 표로 정리
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ProjectionStrategyBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    EntityManager em;
+    JPAQueryFactory queryFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, rows);
+        em = context.getBean(EntityManager.class);
+        queryFactory = context.getBean(JPAQueryFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberDto> jpqlNew() {
+        return em.createQuery(
+                "select new study.querydsl.dto.MemberDto(m.username, m.age) from Member m", MemberDto.class)
+                .getResultList();
+    }
+
+    @Benchmark
+    public List<MemberDto> setter() {
+        return queryFactory
+                .select(Projections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> field() {
+        return queryFactory
+                .select(Projections.fields(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> constructor() {
+        return queryFactory
+                .select(Projections.constructor(MemberDto.class, member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection() {
+        return queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> tuple() {
+        List<Tuple> tuples = queryFactory
+                .select(member.username, member.age)
+                .from(member)
+                .fetch();
+
+        List<MemberDto> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Integer age = tuple.get(member.age);
+            result.add(new MemberDto(tuple.get(member.username), age == null ? 0 : age));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<MemberDto> generatedMapper() {
+        return queryFactory
+                .select(MemberDtoMapper.projection(member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+}
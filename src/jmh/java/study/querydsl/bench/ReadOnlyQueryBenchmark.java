@@ -0,0 +1,90 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 회원 10만명을 엔티티로 읽을때 일반 조회와 읽기 전용 조회 비교
+ * 쓰기 트랜잭션 안에서 읽음(@Transactional(readOnly = true)면 스프링이 세션을 이미 읽기 전용으로 만듬)
+ * gc 프로파일러의 gc.alloc.rate.norm이 호출(10만 행)당 할당량, 두 값의 차이가 스냅샷 만큼 아낀 메모리
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ReadOnlyQueryBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate transactionTemplate;
+    MemberJpaRepository memberJpaRepository;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, ROWS);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int jpqlManaged() {
+        return transactionTemplate.execute(status -> memberJpaRepository.findAll().size());
+    }
+
+    @Benchmark
+    public int jpqlReadOnly() {
+        return transactionTemplate.execute(status -> memberJpaRepository.findAllReadOnly().size());
+    }
+
+    @Benchmark
+    public int querydslManaged() {
+        return transactionTemplate.execute(status -> memberJpaRepository.findAll_Querydsl().size());
+    }
+
+    @Benchmark
+    public int querydslReadOnly() {
+        return transactionTemplate.execute(status -> memberJpaRepository.findAll_QuerydslReadOnly().size());
+    }
+
+    @Benchmark
+    public int springDataManaged() {
+        return transactionTemplate.execute(status -> memberRepository.findAll().size());
+    }
+
+    @Benchmark
+    public int springDataReadOnly() {
+        return transactionTemplate.execute(status -> memberRepository.findAllReadOnly().size());
+    }
+
+    @Benchmark
+    public int predicateReadOnly() {
+        return transactionTemplate.execute(status -> memberRepository.findAllReadOnly(member.age.goe(0)).size());
+    }
+}
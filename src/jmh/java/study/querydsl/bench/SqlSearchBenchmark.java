@@ -0,0 +1,73 @@
+package study.querydsl.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.config.SearchProperties;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberRepository.search를 querydsl.search.engine=jpa / sql 로 비교
+ * 결과가 몇 건 안되는 조건(username)과 수백 건인 조건(팀 + 나이 범위)을 같이 봐서
+ * 호출마다 드는 고정 비용(JPQL, HQL 파싱, 메타데이터)과 행마다 드는 비용을 나눠 볼 수 있게
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class SqlSearchBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"JPA", "SQL"})
+    SearchProperties.Engine engine;
+
+    @Param({"username", "teamAndAge"})
+    String condition;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberSearchCondition searchCondition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--querydsl.search.engine=" + engine);
+        BenchmarkApplication.seed(context, ROWS);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        searchCondition = new MemberSearchCondition();
+        if ("username".equals(condition)) {
+            searchCondition.setUsername("member123");
+        } else {
+            searchCondition.setTeamName("teamC");
+            searchCondition.setAgeGoe(20);
+            searchCondition.setAgeLoe(29);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberRepository.search(searchCondition);
+    }
+}
@@ -0,0 +1,16 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 벌크 update/delete 설정, application.yml의 querydsl.bulk 아래 값
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "querydsl.bulk")
+public class BulkProperties {
+
+    /** 한 번에 처리하는 id 범위 크기, 범위마다 트랜잭션을 따로 커밋해서 락을 오래 잡지 않음 */
+    private int chunkSize = 1000;
+}
@@ -0,0 +1,54 @@
+package study.querydsl.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+import study.querydsl.dto.MemberSearchCondition;
+
+/**
+ * 검색 결과 캐시
+ * 크기 제한 + TTL, recordStats로 히트/미스 통계를 남기고 actuator가 cache.gets 메트릭으로 내보냄
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(SearchProperties searchProperties) {
+        SearchProperties.Cache cache = searchProperties.getCache();
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(MemberSearchCache.NAME);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(cache.getMaximumSize())
+                .expireAfterWrite(cache.getTtl())
+                .recordStats());
+        //캐시하면 안되는 null 결과는 없음
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+
+    /**
+     * 클래스.메서드 + 정규화한 검색 조건 + 나머지 파라미터(Pageable 등)로 키를 만듬
+     * 같은 캐시를 여러 메서드가 같이 쓰므로 메서드 이름이 키에 들어가야함
+     */
+    @Bean
+    public KeyGenerator memberSearchKeyGenerator() {
+        return (target, method, params) -> {
+            Object[] key = new Object[params.length + 1];
+            key[0] = ClassUtils.getUserClass(target).getSimpleName() + "." + method.getName();
+            for (int i = 0; i < params.length; i++) {
+                Object param = params[i];
+                key[i + 1] = param instanceof MemberSearchCondition
+                        ? ((MemberSearchCondition) param).normalized()
+                        : param;
+            }
+            return new SimpleKey(key);
+        };
+    }
+}
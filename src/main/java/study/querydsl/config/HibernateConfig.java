@@ -0,0 +1,37 @@
+package study.querydsl.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.entity.PooledLoSequenceGenerator;
+
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+/** application.yml로 줄 수 없는(객체로 넘겨야 하는) 하이버네이트 설정 */
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer(ObjectProvider<SqlStatementListener> listeners) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new SqlStatementInspector(listeners.orderedStream().collect(Collectors.toList())));
+    }
+
+    /** 엔티티 id 생성기(PooledLoSequenceGenerator)가 읽는 시퀀스별 크기 */
+    @Bean
+    public HibernatePropertiesCustomizer idPropertiesCustomizer(IdProperties idProperties) {
+        return properties -> properties.put(PooledLoSequenceGenerator.ID_PROPERTIES, idProperties);
+    }
+
+    /** 지연 로딩을 NPlusOneDetector에 알려주는 이벤트 리스너 등록 */
+    @Bean
+    public HibernatePropertiesCustomizer lazyLoadIntegratorCustomizer(NPlusOneDetector detector) {
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> Collections.singletonList(new LazyLoadIntegrator(detector)));
+    }
+}
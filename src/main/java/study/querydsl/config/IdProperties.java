@@ -0,0 +1,28 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import study.querydsl.entity.PooledLoSequenceGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 엔티티 id 생성 설정, application.yml의 querydsl.id 아래 값
+ * HibernateConfig가 하이버네이트 설정으로 넘기고 PooledLoSequenceGenerator가 읽음
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "querydsl.id")
+public class IdProperties {
+
+    /** 시퀀스를 한 번 조회할때 받아오는 id 수, increment-size에 없는 시퀀스에 씀 */
+    private int defaultIncrementSize = PooledLoSequenceGenerator.DEFAULT_INCREMENT_SIZE;
+
+    /** 시퀀스 이름별 크기, 키에 _가 있으므로 []로 감쌈 예) "[member_seq]": 50 */
+    private Map<String, Integer> incrementSize = new HashMap<>();
+
+    public int incrementSizeOf(String sequenceName) {
+        return incrementSize.getOrDefault(sequenceName, defaultIncrementSize);
+    }
+}
@@ -0,0 +1,160 @@
+package study.querydsl.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Property;
+import org.hibernate.mapping.ToOne;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 하이버네이트 기본 로드 리스너를 감싸서 NPlusOneDetector에 지연 로딩의 시작과 끝을 알려줌
+ * 로딩 중에 예외가 나도 끝을 알려야 시작 때 쌓은 기록이 남지 않으므로 앞뒤에 따로 붙이지 않고 try/finally로 감쌈
+ * 프록시 초기화(IMMEDIATE_LOAD), 즉시 로딩 연관관계를 따로 조회(INTERNAL_LOAD_EAGER, NULLABLE), 컬렉션 초기화만
+ * em.find 같은 직접 조회는 N+1이 아니므로 뺌
+ *
+ * 로드 이벤트에는 어떤 연관관계로 로딩했는지가 없어서 매핑에서 그 엔티티를 가리키는 연관관계(Member.team)를 찾아 경로로 씀
+ */
+public class LazyLoadIntegrator implements Integrator {
+
+    private final NPlusOneDetector detector;
+
+    public LazyLoadIntegrator(NPlusOneDetector detector) {
+        this.detector = detector;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        Map<String, String> paths = toOnePaths(metadata);
+
+        EventListenerRegistry listeners = serviceRegistry.getService(EventListenerRegistry.class);
+        listeners.setListeners(EventType.LOAD,
+                new TrackedLoad(delegates(listeners, EventType.LOAD, LoadEventListener.class), paths));
+        listeners.setListeners(EventType.INIT_COLLECTION,
+                new TrackedCollectionLoad(delegates(listeners, EventType.INIT_COLLECTION,
+                        InitializeCollectionEventListener.class)));
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    /** 지금 등록되어 있는 리스너(하이버네이트 기본 리스너 등) */
+    @SuppressWarnings("unchecked")
+    private static <T> T[] delegates(EventListenerRegistry listeners, EventType<T> type, Class<T> listenerClass) {
+        List<T> delegates = new ArrayList<>();
+        listeners.getEventListenerGroup(type).listeners().forEach(delegates::add);
+        return delegates.toArray((T[]) Array.newInstance(listenerClass, delegates.size()));
+    }
+
+    private static boolean isLazy(LoadEventListener.LoadType loadType) {
+        return loadType == LoadEventListener.IMMEDIATE_LOAD
+                || loadType == LoadEventListener.INTERNAL_LOAD_EAGER
+                || loadType == LoadEventListener.INTERNAL_LOAD_NULLABLE;
+    }
+
+    /** 엔티티 이름 -> 그 엔티티를 가리키는 연관관계(Member.team), 여러 개면 | 로 이음 */
+    private static Map<String, String> toOnePaths(Metadata metadata) {
+        Map<String, String> paths = new HashMap<>();
+        for (PersistentClass entity : metadata.getEntityBindings()) {
+            Iterator<?> properties = entity.getPropertyClosureIterator();
+            while (properties.hasNext()) {
+                Property property = (Property) properties.next();
+                if (property.getValue() instanceof ToOne) {
+                    String target = ((ToOne) property.getValue()).getReferencedEntityName();
+                    String path = simpleName(entity.getEntityName()) + "." + property.getName();
+                    paths.merge(target, path, (a, b) -> a + "|" + b);
+                }
+            }
+        }
+        return paths;
+    }
+
+    /** study.querydsl.entity.Team.members -> Team.members */
+    private static String collectionPath(String role) {
+        return role.substring(role.lastIndexOf('.', role.lastIndexOf('.') - 1) + 1);
+    }
+
+    private static String simpleName(String entityName) {
+        return entityName.substring(entityName.lastIndexOf('.') + 1);
+    }
+
+    private class TrackedLoad implements LoadEventListener {
+
+        private final LoadEventListener[] delegates;
+        private final Map<String, String> paths;
+
+        private TrackedLoad(LoadEventListener[] delegates, Map<String, String> paths) {
+            this.delegates = delegates;
+            this.paths = paths;
+        }
+
+        @Override
+        public void onLoad(LoadEvent event, LoadType loadType) {
+            if (!isLazy(loadType)) {
+                for (LoadEventListener delegate : delegates) {
+                    delegate.onLoad(event, loadType);
+                }
+                return;
+            }
+
+            detector.loadStarted();
+            boolean loaded = false;
+            try {
+                for (LoadEventListener delegate : delegates) {
+                    delegate.onLoad(event, loadType);
+                }
+                loaded = true;
+            } finally {
+                if (loaded) {
+                    String entityName = event.getEntityClassName();
+                    detector.loadFinished(paths.getOrDefault(entityName, simpleName(entityName)));
+                } else {
+                    detector.loadFailed();
+                }
+            }
+        }
+    }
+
+    private class TrackedCollectionLoad implements InitializeCollectionEventListener {
+
+        private final InitializeCollectionEventListener[] delegates;
+
+        private TrackedCollectionLoad(InitializeCollectionEventListener[] delegates) {
+            this.delegates = delegates;
+        }
+
+        @Override
+        public void onInitializeCollection(InitializeCollectionEvent event) {
+            detector.loadStarted();
+            boolean loaded = false;
+            try {
+                for (InitializeCollectionEventListener delegate : delegates) {
+                    delegate.onInitializeCollection(event);
+                }
+                loaded = true;
+            } finally {
+                if (loaded) {
+                    detector.loadFinished(collectionPath(event.getCollection().getRole()));
+                } else {
+                    detector.loadFailed();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package study.querydsl.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 회원 검색 결과 캐시 사용 여부
+ * 리포지토리 메서드의 @Cacheable condition에서 @memberSearchCache.isCacheable('클래스.메서드')로 부름
+ */
+@Component
+public class MemberSearchCache {
+
+    public static final String NAME = "memberSearch";
+
+    private final SearchProperties searchProperties;
+
+    public MemberSearchCache(SearchProperties searchProperties) {
+        this.searchProperties = searchProperties;
+    }
+
+    /**
+     * 설정에 켜진 메서드만 캐시
+     * 쓰기 트랜잭션 안에서는 캐시를 건너뜀, 아직 flush 안된 변경이 있으면 캐시된 결과에는 안보이기 때문에
+     */
+    public boolean isCacheable(String method) {
+        if (!searchProperties.getCache().getMethods().contains(method)) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,58 @@
+package study.querydsl.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.regex.Pattern;
+
+/**
+ * 회원 검색 결과에 영향을 주는 SQL이 나가면 검색 캐시를 비움
+ * SQL을 보고 판단하기 때문에 MemberJpaRepository.save(insert), Member.changeTeam(flush때 update),
+ * querydsl update(member)/delete(member) 벌크 쿼리까지 한 곳에서 잡힘
+ *
+ * 바로 비우고, 트랜잭션 안이면 커밋 후에 한번 더 비움
+ * 커밋 전에 다른 요청이 예전 값을 다시 캐시에 넣을 수 있기 때문에
+ */
+@Component
+public class MemberSearchCacheInvalidator implements SqlStatementListener {
+
+    /** use_sql_comments로 앞에 붙는 주석은 건너뜀, team insert는 기존 검색 결과를 바꾸지 않음 */
+    private static final Pattern MEMBER_DML = Pattern.compile(
+            "^\\s*(?:/\\*.*?\\*/\\s*)?(?:(?:insert\\s+into|update|delete\\s+from)\\s+member|(?:update|delete\\s+from)\\s+team)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final CacheManager cacheManager;
+
+    public MemberSearchCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onStatement(String sql) {
+        if (!MEMBER_DML.matcher(sql).find()) {
+            return;
+        }
+
+        Cache cache = cacheManager.getCache(MemberSearchCache.NAME);
+        if (cache == null) {
+            return;
+        }
+        cache.clear();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            //트랜잭션당 한 번만 등록
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MemberSearchCacheInvalidator.this);
+                    cache.clear();
+                }
+            });
+        }
+    }
+}
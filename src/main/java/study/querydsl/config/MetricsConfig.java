@@ -0,0 +1,59 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.config.MeterFilterReply;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** 메트릭 필터, 리포지토리 메트릭은 RepositoryMetrics */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 메서드마다 조건 모양(shape)이 querydsl.metrics.max-shapes를 넘으면 그 메서드의 새 모양 메트릭은 만들지 않음
+     * querydsl.repository, .rows, .statements 세 메트릭이 같은 모양 목록을 씀
+     */
+    @Bean
+    public MeterFilter repositoryShapeLimit(RepositoryMetricsProperties properties) {
+        return new ShapeLimitFilter(properties.getMaxShapes());
+    }
+
+    static class ShapeLimitFilter implements MeterFilter {
+
+        private final int maxShapes;
+
+        /** 메서드 -> 지금까지 받아준 모양 */
+        private final Map<String, Set<String>> shapes = new ConcurrentHashMap<>();
+
+        ShapeLimitFilter(int maxShapes) {
+            this.maxShapes = maxShapes;
+        }
+
+        @Override
+        public MeterFilterReply accept(Meter.Id id) {
+            if (!id.getName().startsWith(RepositoryMetrics.LATENCY)) {
+                return MeterFilterReply.NEUTRAL;
+            }
+            String method = id.getTag("method");
+            String shape = id.getTag("shape");
+            if (method == null || shape == null) {
+                return MeterFilterReply.NEUTRAL;
+            }
+
+            Set<String> known = shapes.computeIfAbsent(method, key -> new HashSet<>());
+            synchronized (known) {
+                if (known.contains(shape) || known.size() < maxShapes) {
+                    known.add(shape);
+                    return MeterFilterReply.NEUTRAL;
+                }
+            }
+            return MeterFilterReply.DENY;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * N+1 감지, 한 트랜잭션 안에서 같은 연관관계(Member.team, Team.members)를 지연 로딩하는 select가 반복되면
+ * 그 직전에 부른 리포지토리 메서드(출처)와 연관관계 경로를 남김
+ *
+ * 지연 로딩은 LazyLoadIntegrator가 하이버네이트 로드 이벤트 앞뒤에서 알려주고, 그 사이에 SQL이 나갔을때만 셈
+ * 영속성 컨텍스트나 2차 캐시(team 영역)에서 나온 로딩은 db에 부담이 없으므로 안 셈
+ *
+ * 운영에서 켜두는 용도, 트랜잭션마다 작은 맵 하나와 SQL마다 카운터 증가만 함
+ * warn이면 트랜잭션이 끝날때 경고 로그 + querydsl.nplusone 카운터(origin, path 태그)
+ * 트랜잭션 밖(트랜잭션 없이 OSIV로 뷰에서 지연 로딩)은 세지 않음
+ *
+ * 테스트에서는 startRecording()으로 모은 결과를 검증(NPlusOneExtension)
+ * 기록 중인 스레드는 트랜잭션 밖의 지연 로딩도 스레드에 묶인 기록으로 셈(MockMvc, OSIV 스타일 테스트)
+ */
+@Slf4j
+@Aspect
+@Component
+public class NPlusOneDetector implements SqlStatementListener {
+
+    public static final String METER = "querydsl.nplusone";
+
+    /** 리포지토리 메서드 없이(em.find 등) 로딩한 엔티티에서 시작한 지연 로딩의 출처 */
+    public static final String UNKNOWN_ORIGIN = "unknown";
+
+    /** 리포지토리 호출 중이면 true, 안쪽으로 이어지는 호출(MemberRepository -> MemberRepositoryImpl)은 바깥 호출을 출처로 */
+    private static final ThreadLocal<Boolean> IN_REPOSITORY = new ThreadLocal<>();
+
+    /** 기록 중인 스레드에서 트랜잭션 밖의 지연 로딩을 세는 기록, 기록이 없으면 null */
+    private static final ThreadLocal<TransactionLog> RECORDING_LOG = new ThreadLocal<>();
+
+    private final NPlusOneProperties properties;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final List<Recording> recordings = new CopyOnWriteArrayList<>();
+
+    public NPlusOneDetector(NPlusOneProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** 리포지토리 메서드를 부를때마다 이 트랜잭션의 출처를 바꿈, 이후 지연 로딩은 이 호출이 돌려준 엔티티에서 시작한 것으로 봄 */
+    @Around("study.querydsl.config.RepositoryPointcuts.repositoryMethods()")
+    public Object trackOrigin(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (IN_REPOSITORY.get() != null
+                || ((MethodSignature) joinPoint.getSignature()).getMethod().getDeclaringClass() == Object.class) {
+            return joinPoint.proceed();
+        }
+
+        String origin = RepositoryPointcuts.methodName(joinPoint);
+        TransactionLog log = currentLog();
+        if (log != null) {
+            log.origin = origin;
+        }
+        //리포지토리 호출만 트랜잭션 안이고 지연 로딩은 밖에서 일어나는 경우
+        TransactionLog recordingLog = RECORDING_LOG.get();
+        if (recordingLog != null) {
+            recordingLog.origin = origin;
+        }
+        IN_REPOSITORY.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            IN_REPOSITORY.remove();
+        }
+    }
+
+    @Override
+    public void onStatement(String sql) {
+        TransactionLog log = boundLog();
+        if (log != null) {
+            log.statements++;
+        }
+    }
+
+    /** 하이버네이트가 지연 로딩을 시작하기 전, LazyLoadIntegrator */
+    void loadStarted() {
+        TransactionLog log = currentLog();
+        if (log != null) {
+            log.loadStarts.push(log.statements);
+        }
+    }
+
+    /** 지연 로딩이 끝난 후, 그 사이에 SQL이 나갔으면 path(Member.team)로 셈 */
+    void loadFinished(String path) {
+        TransactionLog log = boundLog();
+        if (log == null || log.loadStarts.isEmpty()) {
+            return;
+        }
+        int statementsBefore = log.loadStarts.pop();
+        if (log.statements == statementsBefore) {
+            return;
+        }
+
+        String origin = log.origin == null ? UNKNOWN_ORIGIN : log.origin;
+        Finding finding = log.findings.computeIfAbsent(origin + " " + path, key -> new Finding(origin, path));
+        finding.count++;
+        for (Recording recording : recordings) {
+            if (recording.thread == Thread.currentThread()) {
+                recording.add(origin, path);
+            }
+        }
+
+        if (properties.getMode() == NPlusOneProperties.Mode.FAIL && finding.count == properties.getThreshold()) {
+            throw new NPlusOneException(finding);
+        }
+    }
+
+    /** 지연 로딩이 예외로 끝남, 시작 때 쌓은 것만 버리고 세지 않음 */
+    void loadFailed() {
+        TransactionLog log = boundLog();
+        if (log != null && !log.loadStarts.isEmpty()) {
+            log.loadStarts.pop();
+        }
+    }
+
+    /** 이 스레드에서 일어나는 지연 로딩을 트랜잭션과 상관없이 모음, 같은 스레드에서 close */
+    public Recording startRecording() {
+        Recording recording = new Recording();
+        recordings.add(recording);
+        if (RECORDING_LOG.get() == null) {
+            RECORDING_LOG.set(new TransactionLog());
+        }
+        return recording;
+    }
+
+    /** 트랜잭션 안이면 그 트랜잭션의 기록, 밖이면 기록 중인 스레드의 기록 */
+    private TransactionLog boundLog() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                ? (TransactionLog) TransactionSynchronizationManager.getResource(this)
+                : RECORDING_LOG.get();
+    }
+
+    /** 지금 트랜잭션의 기록, 처음이면 만들고 트랜잭션이 끝날때 결과를 남기게 등록 */
+    private TransactionLog currentLog() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return RECORDING_LOG.get();
+        }
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        TransactionLog log = (TransactionLog) TransactionSynchronizationManager.getResource(this);
+        if (log == null) {
+            TransactionLog created = new TransactionLog();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(NPlusOneDetector.this);
+                    report(created);
+                }
+            });
+            log = created;
+        }
+        return log;
+    }
+
+    private void report(TransactionLog transactionLog) {
+        for (Finding finding : transactionLog.findings.values()) {
+            if (finding.count < properties.getThreshold()) {
+                continue;
+            }
+            if (properties.getMode() == NPlusOneProperties.Mode.WARN) {
+                log.warn("N+1 detected: {}", finding);
+            }
+            meterRegistry.getObject()
+                    .counter(METER, "origin", finding.origin, "path", finding.path)
+                    .increment();
+        }
+    }
+
+    private static class TransactionLog {
+
+        /** 마지막으로 부른 리포지토리 메서드 */
+        private String origin;
+
+        /** 이 트랜잭션에서 나간 SQL 수 */
+        private int statements;
+
+        /** 진행 중인 지연 로딩이 시작할때의 statements, 로딩 중에 다른 로딩이 이어질 수 있어서 스택 */
+        private final Deque<Integer> loadStarts = new ArrayDeque<>();
+
+        private final Map<String, Finding> findings = new LinkedHashMap<>();
+    }
+
+    /** 출처 리포지토리 메서드 + 연관관계 경로별 SQL이 나간 지연 로딩 횟수 */
+    public static class Finding {
+
+        private final String origin;
+        private final String path;
+        private int count;
+
+        Finding(String origin, String path) {
+            this.origin = origin;
+            this.path = path;
+        }
+
+        public String getOrigin() {
+            return origin;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return path + " lazily loaded " + count + " times after " + origin;
+        }
+    }
+
+    public class Recording implements AutoCloseable {
+
+        private final Thread thread = Thread.currentThread();
+
+        private final Map<String, Finding> findings = new LinkedHashMap<>();
+
+        private synchronized void add(String origin, String path) {
+            findings.computeIfAbsent(origin + " " + path, key -> new Finding(origin, path)).count++;
+        }
+
+        public synchronized List<Finding> getFindings() {
+            return new ArrayList<>(findings.values());
+        }
+
+        @Override
+        public void close() {
+            recordings.remove(this);
+            if (recordings.stream().noneMatch(recording -> recording.thread == thread)) {
+                RECORDING_LOG.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package study.querydsl.config;
+
+/**
+ * querydsl.n-plus-one.mode=fail 일때 한 트랜잭션에서 같은 연관관계를 threshold 번 지연 로딩하면
+ * @Repository 예외 변환에 감싸이지 않게 RuntimeException
+ */
+public class NPlusOneException extends RuntimeException {
+
+    public NPlusOneException(NPlusOneDetector.Finding finding) {
+        super("N+1 detected: " + finding);
+    }
+}
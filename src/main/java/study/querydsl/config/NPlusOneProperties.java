@@ -0,0 +1,29 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * N+1 감지 설정, application.yml의 querydsl.n-plus-one 아래 값
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "querydsl.n-plus-one")
+public class NPlusOneProperties {
+
+    private boolean enabled = true;
+
+    private Mode mode = Mode.WARN;
+
+    /** 한 트랜잭션에서 같은 연관관계를 지연 로딩하는 select가 이 횟수 이상이면 N+1로 봄 */
+    private int threshold = 3;
+
+    public enum Mode {
+
+        /** 트랜잭션이 끝나고 경고 로그 + querydsl.nplusone 카운터 */
+        WARN,
+
+        /** threshold 번째 select가 나간 직후 NPlusOneException */
+        FAIL
+    }
+}
@@ -0,0 +1,110 @@
+package study.querydsl.config;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 메트릭 태그로 쓰는 검색 조건의 모양, 값은 빼고 어떤 조건이 걸렸는지만
+ * MemberSearchCondition은 채워진 필드 이름(username+ageGoe), Predicate는 값을 ?로 바꾼 식(and(eq(member.username,?),goe(member.age,?)))
+ * 조건이 없으면 none
+ */
+public final class QueryShape {
+
+    public static final String NONE = "none";
+
+    private QueryShape() {
+    }
+
+    /** 파라미터 중 MemberSearchCondition, Predicate만 봄, 나머지(Pageable, 이름 등)는 모양에 안 들어감 */
+    public static String of(Object[] args) {
+        List<String> shapes = new ArrayList<>();
+        for (Object arg : args) {
+            if (arg instanceof MemberSearchCondition) {
+                shapes.add(of((MemberSearchCondition) arg));
+            } else if (arg instanceof Predicate) {
+                shapes.add(of((Predicate) arg));
+            }
+        }
+        return shapes.isEmpty() ? NONE : String.join(",", shapes);
+    }
+
+    public static String of(MemberSearchCondition condition) {
+        StringJoiner shape = new StringJoiner("+");
+        if (hasText(condition.getUsername())) {
+            shape.add("username");
+        }
+        if (hasText(condition.getTeamName())) {
+            shape.add("teamName");
+        }
+        if (condition.getAgeGoe() != null) {
+            shape.add("ageGoe");
+        }
+        if (condition.getAgeLoe() != null) {
+            shape.add("ageLoe");
+        }
+        return shape.length() == 0 ? NONE : shape.toString();
+    }
+
+    public static String of(Predicate predicate) {
+        return predicate.accept(ShapeVisitor.INSTANCE, null);
+    }
+
+    private enum ShapeVisitor implements Visitor<String, Void> {
+
+        INSTANCE;
+
+        @Override
+        public String visit(Constant<?> expr, Void context) {
+            return "?";
+        }
+
+        @Override
+        public String visit(FactoryExpression<?> expr, Void context) {
+            return "factory";
+        }
+
+        @Override
+        public String visit(Operation<?> expr, Void context) {
+            StringJoiner args = new StringJoiner(",", expr.getOperator().name().toLowerCase() + "(", ")");
+            for (Expression<?> arg : expr.getArgs()) {
+                args.add(arg.accept(this, context));
+            }
+            return args.toString();
+        }
+
+        @Override
+        public String visit(ParamExpression<?> expr, Void context) {
+            return "?";
+        }
+
+        @Override
+        public String visit(Path<?> expr, Void context) {
+            return expr.toString();
+        }
+
+        @Override
+        public String visit(SubQueryExpression<?> expr, Void context) {
+            return "subquery";
+        }
+
+        @Override
+        public String visit(TemplateExpression<?> expr, Void context) {
+            return "template";
+        }
+    }
+}
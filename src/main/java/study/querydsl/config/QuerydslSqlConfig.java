@@ -0,0 +1,41 @@
+package study.querydsl.config;
+
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.SQLTemplatesRegistry;
+import com.querydsl.sql.spring.SpringConnectionProvider;
+import com.querydsl.sql.spring.SpringExceptionTranslator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * querydsl-sql, JPA를 거치지 않고 JDBC로 바로 쿼리
+ * 커넥션은 스프링 트랜잭션에 묶인 것을 쓰므로(SpringConnectionProvider) 트랜잭션 안에서만 사용 가능
+ * 예외는 JPA와 같은 스프링 DataAccessException으로 바꿔줌
+ */
+@Configuration
+public class QuerydslSqlConfig {
+
+    @Bean
+    public com.querydsl.sql.Configuration querydslSqlConfiguration(DataSource dataSource) throws SQLException {
+        //db 종류(H2, MySQL ...)에 맞는 SQL 문법
+        SQLTemplates templates;
+        try (Connection connection = dataSource.getConnection()) {
+            templates = new SQLTemplatesRegistry().getTemplates(connection.getMetaData());
+        }
+
+        com.querydsl.sql.Configuration configuration = new com.querydsl.sql.Configuration(templates);
+        configuration.setExceptionTranslator(new SpringExceptionTranslator());
+        return configuration;
+    }
+
+    @Bean
+    public SQLQueryFactory sqlQueryFactory(com.querydsl.sql.Configuration querydslSqlConfiguration,
+                                           DataSource dataSource) {
+        return new SQLQueryFactory(querydslSqlConfiguration, new SpringConnectionProvider(dataSource));
+    }
+}
@@ -0,0 +1,154 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.CountedPage;
+import study.querydsl.dto.KeysetSlice;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * MemberJpaRepository, MemberRepositoryImpl, 스프링 데이터 MemberRepository 프록시의 public 메서드마다
+ * 걸린 시간, 반환한 행 수, 실행한 SQL 수를 메서드 + 조건 모양(QueryShape)별로 남김
+ * /actuator/metrics/querydsl.repository, /actuator/prometheus 로 확인
+ *
+ * querydsl.repository             Timer, 히스토그램, outcome=success/error
+ * querydsl.repository.rows        반환한 행 수(List, Page, Optional 등), count 같은 숫자 반환과 Stream은 안 남김
+ * querydsl.repository.statements  그 호출 동안 이 스레드에서 실행한 SQL 수, 캐시에서 나오면 0
+ *
+ * 트랜잭션, 캐시 바깥에서 재도록 가장 먼저 실행
+ * MemberRepository.search -> MemberRepositoryImpl.search 처럼 안쪽으로 이어지는 호출은 바깥 호출 하나로만 남김
+ * 카운트 쿼리를 다른 스레드에서 돌리는 경우(parallel-count)에 그 SQL은 statements에 안 들어감
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RepositoryMetrics implements SqlStatementListener {
+
+    public static final String LATENCY = "querydsl.repository";
+    public static final String ROWS = "querydsl.repository.rows";
+    public static final String STATEMENTS = "querydsl.repository.statements";
+
+    /** 지금 스레드에서 재고 있는 호출의 SQL 수, 재는 중이 아니면 null */
+    private static final ThreadLocal<int[]> STATEMENT_COUNT = new ThreadLocal<>();
+
+    //MeterRegistry는 바인더들이 엔티티매니저 팩토리 같은 빈을 찾으므로 하이버네이트 설정(SqlStatementListener)보다 늦게 꺼냄
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final RepositoryMetricsProperties properties;
+
+    public RepositoryMetrics(ObjectProvider<MeterRegistry> meterRegistry, RepositoryMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Around("study.querydsl.config.RepositoryPointcuts.repositoryMethods()")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        if (!properties.isEnabled()
+                || STATEMENT_COUNT.get() != null
+                || signature.getMethod().getDeclaringClass() == Object.class) {
+            return joinPoint.proceed();
+        }
+
+        int[] statements = new int[1];
+        STATEMENT_COUNT.set(statements);
+        boolean success = false;
+        Object result = null;
+        long start = System.nanoTime();
+        try {
+            result = joinPoint.proceed();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            STATEMENT_COUNT.remove();
+
+            MeterRegistry registry = meterRegistry.getObject();
+            Tags tags = Tags.of("method", RepositoryPointcuts.methodName(joinPoint),
+                    "shape", QueryShape.of(joinPoint.getArgs()));
+
+            Timer.builder(LATENCY)
+                    .description("Repository method latency")
+                    .tags(tags)
+                    .tag("outcome", success ? "success" : "error")
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+
+            DistributionSummary.builder(STATEMENTS)
+                    .description("SQL statements executed per repository call")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(statements[0]);
+
+            Integer rows = success ? rows(signature.getReturnType(), result) : null;
+            if (rows != null) {
+                DistributionSummary.builder(ROWS)
+                        .description("Rows returned per repository call")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(rows);
+            }
+        }
+    }
+
+    @Override
+    public void onStatement(String sql) {
+        int[] statements = STATEMENT_COUNT.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+    }
+
+    /** 행 수를 셀 수 없는 반환(void, 숫자, 스트림)은 null */
+    static Integer rows(Class<?> returnType, Object result) {
+        if (returnType == void.class || result instanceof Number || result instanceof Boolean
+                || result instanceof Stream) {
+            return null;
+        }
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        //Page도 Slice
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof CountedPage) {
+            return ((CountedPage<?>) result).getContent().size();
+        }
+        if (result instanceof KeysetSlice) {
+            return ((KeysetSlice<?>) result).getContent().size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable) {
+            int rows = 0;
+            for (Object ignored : (Iterable<?>) result) {
+                rows++;
+            }
+            return rows;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,21 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 리포지토리 메서드 메트릭 설정, application.yml의 querydsl.metrics 아래 값
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "querydsl.metrics")
+public class RepositoryMetricsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 메서드별로 남기는 조건 모양(shape 태그) 수
+     * QuerydslPredicateExecutor는 밖에서 만든 Predicate가 그대로 들어오므로 모양이 계속 늘 수 있음, 넘으면 그 메트릭은 버림
+     */
+    private int maxShapes = 100;
+}
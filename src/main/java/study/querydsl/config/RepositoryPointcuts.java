@@ -0,0 +1,30 @@
+package study.querydsl.config;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.util.ClassUtils;
+import study.querydsl.repository.MemberRepository;
+
+/**
+ * 리포지토리 메서드를 감싸는 애스펙트(RepositoryMetrics, NPlusOneDetector)가 같이 쓰는 포인트컷
+ * MemberJpaRepository, MemberRepositoryImpl, 스프링 데이터 MemberRepository 프록시의 public 메서드
+ */
+public final class RepositoryPointcuts {
+
+    private RepositoryPointcuts() {
+    }
+
+    @Pointcut("execution(public * study.querydsl.repository.MemberJpaRepository.*(..))"
+            + " || execution(public * study.querydsl.repository.MemberRepositoryImpl.*(..))"
+            + " || this(study.querydsl.repository.MemberRepository)")
+    public void repositoryMethods() {
+    }
+
+    /** 클래스이름.메서드이름, 스프링 데이터 프록시는 구현 클래스(SimpleJpaRepository)가 아니라 MemberRepository로 */
+    public static String methodName(JoinPoint joinPoint) {
+        String type = joinPoint.getThis() instanceof MemberRepository
+                ? MemberRepository.class.getSimpleName()
+                : ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+        return type + "." + joinPoint.getSignature().getName();
+    }
+}
@@ -0,0 +1,76 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 회원 검색 관련 설정, application.yml의 querydsl.search 아래 값
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "querydsl.search")
+public class SearchProperties {
+
+    /**
+     * 스트리밍 조회시 JDBC fetch size, 드라이버가 한 번에 가져오는 행 수
+     * MySQL은 url에 useCursorFetch=true가 있어야 이 값대로 나눠서 가져옴, 없으면 결과를 전부 메모리에 올림
+     */
+    private int streamFetchSize = 500;
+
+    /** CountStrategy.CAPPED에서 여기까지만 셈, 넘으면 "1000+" 처럼 보여줌 */
+    private int countCap = 1000;
+
+    /** MemberRepositoryCustom.search를 실행하는 방식 */
+    private Engine engine = Engine.JPA;
+
+    private final ParallelCount parallelCount = new ParallelCount();
+
+    private final Cache cache = new Cache();
+
+    public enum Engine {
+
+        /** Querydsl JPA, JPQL -> 하이버네이트 -> SQL */
+        JPA,
+
+        /** querydsl-sql, SQL을 바로 만들어 JDBC로 실행(MemberSqlRepository) */
+        SQL
+    }
+
+    /**
+     * 페이징 검색의 카운트 쿼리를 컨텐츠 쿼리와 동시에 실행
+     * 카운트는 별도 스레드에서 자기 EntityManager, 읽기 전용 트랜잭션으로 돌기 때문에
+     * 커넥션을 요청당 2개까지 쓰게 됨, 커넥션 풀 크기를 같이 보고 켜야함
+     */
+    @Getter @Setter
+    public static class ParallelCount {
+
+        private boolean enabled = false;
+
+        /** 동시에 실행할 수 있는 카운트 쿼리 수 */
+        private int poolSize = 4;
+
+        /** 스레드가 모두 바쁠때 기다릴 수 있는 카운트 수, 넘치면 요청 스레드에서 순서대로 실행 */
+        private int queueCapacity = 50;
+    }
+
+    /**
+     * 검색 결과 캐시, 정규화한 검색 조건 + 페이징으로 결과를 그대로 저장
+     * 회원/팀 테이블이 바뀌는 SQL이 나가면 전부 비움
+     */
+    @Getter @Setter
+    public static class Cache {
+
+        /** 캐시할 메서드, 클래스이름.메서드이름 예) MemberRepositoryImpl.searchPageComplex, 비어있으면 캐시 안함 */
+        private Set<String> methods = new HashSet<>();
+
+        /** 최대 항목 수, 넘으면 오래 안쓴 것부터 버림 */
+        private long maximumSize = 1000;
+
+        /** 저장하고 이 시간이 지나면 버림 */
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+}
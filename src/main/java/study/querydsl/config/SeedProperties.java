@@ -0,0 +1,40 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 샘플 데이터 생성 설정, application.yml의 querydsl.seed 아래 값
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "querydsl.seed")
+public class SeedProperties {
+
+    private int members = 100;
+
+    private int teams = 2;
+
+    private AgeDistribution ageDistribution = AgeDistribution.SEQUENTIAL;
+
+    private int ageMin = 0;
+
+    private int ageMax = 99;
+
+    /** 이 행 수마다 flush, clear 하고 커밋, 영속성 컨텍스트가 커지지 않게 */
+    private int flushSize = 1000;
+
+    /** 회원을 나눠서 넣는 스레드 수, 스레드마다 커넥션을 하나씩 씀 */
+    private int threads = 1;
+
+    public enum AgeDistribution {
+
+        /** 회원 번호가 곧 나이, 예전 InitMember와 같음 */
+        SEQUENTIAL,
+
+        UNIFORM,
+
+        /** ageMin~ageMax 가운데가 평균, 범위의 1/6이 표준편차 */
+        NORMAL
+    }
+}
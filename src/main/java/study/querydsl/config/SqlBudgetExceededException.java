@@ -0,0 +1,16 @@
+package study.querydsl.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * querydsl.sql-budget.mode=fail 일때 요청이 정해진 수보다 많은 SQL을 실행하려고 하면
+ * IllegalStateException이면 @Repository 예외 변환이 InvalidDataAccessApiUsageException으로 감싸므로 RuntimeException
+ */
+@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(String endpoint, int statements, int limit) {
+        super(endpoint + " exceeded its SQL budget: statement " + statements + ", limit " + limit);
+    }
+}
@@ -0,0 +1,114 @@
+package study.querydsl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import study.querydsl.controller.MemberController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * MemberController 요청마다 실행한 SQL 수를 세고 상한(SqlBudgetProperties)과 비교
+ * 센 값은 요청 속성에 남겨서 http.server.requests 메트릭의 sql.statements 태그로 붙임(WebConfig)
+ *
+ * 요청을 처리하는 스레드에서 하이버네이트가 실행한 SQL만 셈
+ * 비동기 처리(/v1/members/stream의 본문 쓰기), 병렬 카운트, querydsl-sql 엔진(JDBC 바로)은 안 들어감
+ */
+@Slf4j
+@Component
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor, SqlStatementListener {
+
+    static final String BUDGET_ATTRIBUTE = SqlBudgetInterceptor.class.getName() + ".budget";
+
+    /** 세지 않은 요청(다른 컨트롤러, 정적 리소스 등)의 태그 값 */
+    static final String NOT_COUNTED = "none";
+
+    private static final ThreadLocal<Budget> CURRENT = new ThreadLocal<>();
+
+    private final SqlBudgetProperties properties;
+
+    public SqlBudgetInterceptor(SqlBudgetProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)
+                || ((HandlerMethod) handler).getBeanType() != MemberController.class) {
+            return true;
+        }
+        String endpoint = MemberController.class.getSimpleName() + "."
+                + ((HandlerMethod) handler).getMethod().getName();
+        Budget budget = new Budget(endpoint, properties.limitOf(endpoint));
+        request.setAttribute(BUDGET_ATTRIBUTE, budget);
+        CURRENT.set(budget);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        CURRENT.remove();
+        Budget budget = (Budget) request.getAttribute(BUDGET_ATTRIBUTE);
+        if (budget != null && properties.isEnabled() && properties.getMode() == SqlBudgetProperties.Mode.WARN
+                && budget.statements > budget.limit) {
+            log.warn("{} exceeded its SQL budget: {} statements, limit {}",
+                    budget.endpoint, budget.statements, budget.limit);
+        }
+    }
+
+    @Override
+    public void onStatement(String sql) {
+        Budget budget = CURRENT.get();
+        if (budget == null) {
+            return;
+        }
+        budget.statements++;
+        if (properties.isEnabled() && properties.getMode() == SqlBudgetProperties.Mode.FAIL
+                && budget.statements > budget.limit) {
+            throw new SqlBudgetExceededException(budget.endpoint, budget.statements, budget.limit);
+        }
+    }
+
+    /**
+     * 태그 값, 숫자를 그대로 쓰면 시계열이 너무 많아져서 구간으로
+     * 0, 1, 2, 3-5, 6-10, 11-20, 21+
+     */
+    static String statementsTag(HttpServletRequest request) {
+        Budget budget = (Budget) request.getAttribute(BUDGET_ATTRIBUTE);
+        if (budget == null) {
+            return NOT_COUNTED;
+        }
+        int statements = budget.statements;
+        if (statements <= 2) {
+            return String.valueOf(statements);
+        }
+        if (statements <= 5) {
+            return "3-5";
+        }
+        if (statements <= 10) {
+            return "6-10";
+        }
+        return statements <= 20 ? "11-20" : "21+";
+    }
+
+    private static class Budget {
+
+        private final String endpoint;
+        private final int limit;
+        private int statements;
+
+        private Budget(String endpoint, int limit) {
+            this.endpoint = endpoint;
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package study.querydsl.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 요청 하나가 실행할 수 있는 SQL 수, application.yml의 querydsl.sql-budget 아래 값
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "querydsl.sql-budget")
+public class SqlBudgetProperties {
+
+    private boolean enabled = true;
+
+    private Mode mode = Mode.WARN;
+
+    /** limits에 없는 엔드포인트의 상한 */
+    private int defaultLimit = 10;
+
+    /** 엔드포인트(컨트롤러이름.메서드이름)별 상한, 키에 점이 있어서 yml에서는 "[MemberController.searchMemberV1]" 처럼 */
+    private Map<String, Integer> limits = new HashMap<>();
+
+    public int limitOf(String endpoint) {
+        return limits.getOrDefault(endpoint, defaultLimit);
+    }
+
+    public enum Mode {
+
+        /** 요청이 끝나고 경고 로그 */
+        WARN,
+
+        /** 상한을 넘는 SQL을 실행하기 전에 SqlBudgetExceededException, 요청은 500으로 끝나고 트랜잭션은 롤백 */
+        FAIL
+    }
+}
@@ -0,0 +1,41 @@
+package study.querydsl.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+
+/**
+ * 하이버네이트 StatementInspector는 하나만 등록할 수 있어서
+ * 실행되는 SQL을 여러 SqlStatementListener에게 나눠주는 역할만 함, SQL은 바꾸지 않음
+ *
+ * 리스너가 예외를 던져도(SqlBudgetInterceptor의 fail 모드) 나머지 리스너에게 다 알린 다음에 던짐
+ * 그래야 메트릭, N+1 감지가 그 SQL을 빠뜨리지 않음
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    private final List<SqlStatementListener> listeners;
+
+    public SqlStatementInspector(List<SqlStatementListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RuntimeException failure = null;
+        for (SqlStatementListener listener : listeners) {
+            try {
+                listener.onStatement(sql);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,10 @@
+package study.querydsl.config;
+
+/**
+ * 하이버네이트가 SQL을 실행하기 직전에 호출됨
+ * 빈으로 등록하면 SqlStatementInspector가 모든 SQL을 넘겨줌
+ */
+public interface SqlStatementListener {
+
+    void onStatement(String sql);
+}
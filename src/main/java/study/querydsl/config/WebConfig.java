@@ -0,0 +1,48 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/** 스프링 MVC 설정, SQL 수 제한(SqlBudgetInterceptor) */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    public WebConfig(SqlBudgetInterceptor sqlBudgetInterceptor) {
+        this.sqlBudgetInterceptor = sqlBudgetInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlBudgetInterceptor);
+    }
+
+    /**
+     * http.server.requests에 요청이 실행한 SQL 수 태그
+     * 프로메테우스는 같은 이름의 메트릭이 모두 같은 태그 키를 가져야 해서 세지 않은 요청에도 none으로 붙임
+     */
+    @Bean
+    public WebMvcTagsContributor sqlStatementsTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Throwable exception) {
+                return Tags.of("sql.statements", SqlBudgetInterceptor.statementsTag(request));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+}
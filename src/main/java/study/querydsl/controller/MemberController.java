@@ -3,8 +3,16 @@ package study.querydsl.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.dto.CountStrategy;
+import study.querydsl.dto.CountedPage;
+import study.querydsl.dto.KeysetSlice;
+import study.querydsl.dto.MemberKeysetSort;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.repository.MemberJpaRepository;
@@ -26,8 +34,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberNdjsonWriter memberNdjsonWriter;
 
     //url에 들어오는 db조건을 동적쿼리 파라미터에 넣음
     //teamName=team@ageGie=31&ageLoe=35
@@ -37,6 +48,16 @@ public class MemberController {
         return memberJpaRepository.search(condition);
     }
 
+    //v1과 같은 조건, 결과를 다 모으지 않고 읽는 대로 한 줄씩 내려줌
+    //대량 조회도 힙 사용량이 일정함
+    @GetMapping("/v1/members/stream")
+    public ResponseEntity<StreamingResponseBody> searchMemberV1Stream(MemberSearchCondition condition) {
+        StreamingResponseBody body = out -> memberNdjsonWriter.write(condition, out);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
     //스프링 데이터가 Pageable인터페이스 넘기면 컨트롤러가 바인딩 될 때 데이터를 넣어서 줌
     @GetMapping("/v2/members")
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
@@ -47,4 +68,23 @@ public class MemberController {
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
         return memberRepository.searchPageComplex(condition, pageable);
     }
+
+    //키셋 페이징, 첫 페이지는 cursor 없이 호출하고 응답의 nextCursor를 다음 요청에 그대로 넘김
+    //검색 조건은 매 요청마다 같은 값으로 넘겨야함
+    ///v4/members?orderBy=AGE&size=20&cursor=...
+    @GetMapping("/v4/members")
+    public KeysetSlice<MemberTeamDto> searchMemberV4(MemberSearchCondition condition,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "ID") MemberKeysetSort orderBy,
+                                                     @RequestParam(defaultValue = "20") int size) {
+        return memberRepository.searchKeyset(condition, orderBy, cursor, size);
+    }
+
+    //카운트 방식을 클라이언트가 고르는 페이징, count=EXACT|CAPPED|ESTIMATED|NONE
+    ///v5/members?page=100&size=20&count=CAPPED
+    @GetMapping("/v5/members")
+    public CountedPage<MemberTeamDto> searchMemberV5(MemberSearchCondition condition, Pageable pageable,
+                                                     @RequestParam(defaultValue = "EXACT") CountStrategy count) {
+        return memberRepository.searchPage(condition, pageable, count);
+    }
 }
@@ -0,0 +1,58 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.config.SearchProperties;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 검색 결과를 한 줄에 하나씩 JSON으로 쓰는 (NDJSON) 스트리밍 응답
+ * StreamingResponseBody는 요청 스레드가 아닌 비동기 스레드에서 돌기 때문에
+ * 트랜잭션을 여기서 따로 열어서 스트림을 다 쓸 때까지 커넥션을 잡고 있음
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberNdjsonWriter {
+
+    /** 이 행 수마다 flush 해서 클라이언트가 바로 받을 수 있게 */
+    private static final int FLUSH_EVERY = 100;
+
+    private static final byte NEW_LINE = '\n';
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final SearchProperties searchProperties;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void write(MemberSearchCondition condition, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(MemberTeamDto.class);
+
+        try (Stream<MemberTeamDto> rows =
+                     memberJpaRepository.searchStream(condition, searchProperties.getStreamFetchSize())) {
+            int count = 0;
+            Iterator<MemberTeamDto> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                //writeValue(OutputStream)은 스트림을 닫아버리므로 바이트로 만들어서 씀
+                out.write(writer.writeValueAsBytes(iterator.next()));
+                out.write(NEW_LINE);
+                if (++count % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.TeamWithMembersDto;
+import study.querydsl.repository.TeamRepository;
+
+/**
+ * 팀 조회 API
+ */
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+
+    //팀마다 회원 목록, 페이지 크기와 상관없이 쿼리 세 번(팀, 회원, 카운트)
+    ///teams?page=0&size=20&sort=name, /teams?name=teamA
+    @GetMapping("/teams")
+    public Page<TeamWithMembersDto> searchTeams(@RequestParam(required = false) String name, Pageable pageable) {
+        return teamRepository.searchTeamMembers(name, pageable);
+    }
+}
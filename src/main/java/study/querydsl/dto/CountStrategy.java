@@ -0,0 +1,20 @@
+package study.querydsl.dto;
+
+/**
+ * 페이징 검색에서 전체 개수를 어떻게 구할지
+ * 카운트 쿼리가 가장 비싼 쿼리라서 화면마다 필요한 정확도만큼만 고를 수 있게
+ */
+public enum CountStrategy {
+
+    /** 조건에 맞는 전체 개수를 정확히 셈, 기존 searchPageComplex와 같음 */
+    EXACT,
+
+    /** 상한(N)+1개까지만 세고 넘으면 "N+"로 알려줌 */
+    CAPPED,
+
+    /** 테이블 통계의 대략적인 행 수, 검색 조건이 없을때만 쓸 수 있고 조건이 있으면 CAPPED로 대신함 */
+    ESTIMATED,
+
+    /** 개수를 구하지 않고 다음 페이지가 있는지만 확인 (Slice) */
+    NONE
+}
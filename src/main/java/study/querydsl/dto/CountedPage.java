@@ -0,0 +1,48 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 카운트 방식을 고를 수 있는 페이징 결과
+ * countStrategy는 요청한 방식이 아니라 실제로 total을 만든 방식
+ */
+@Getter
+public class CountedPage<T> {
+
+    private final List<T> content;
+
+    private final int page;
+
+    private final int size;
+
+    /** NONE이면 null */
+    private final Long total;
+
+    /** true면 실제 개수는 total보다 많음 */
+    private final boolean totalCapped;
+
+    private final boolean hasNext;
+
+    private final CountStrategy countStrategy;
+
+    public CountedPage(List<T> content, int page, int size, Long total, boolean totalCapped,
+                       boolean hasNext, CountStrategy countStrategy) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.totalCapped = totalCapped;
+        this.hasNext = hasNext;
+        this.countStrategy = countStrategy;
+    }
+
+    /** 화면에 그대로 보여줄 개수, 예) 1000+ */
+    public String getTotalLabel() {
+        if (total == null) {
+            return null;
+        }
+        return totalCapped ? total + "+" : String.valueOf(total);
+    }
+}
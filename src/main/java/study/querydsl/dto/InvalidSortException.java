@@ -0,0 +1,18 @@
+package study.querydsl.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Collection;
+
+/**
+ * 클라이언트가 넘긴 정렬 속성(sort=...)이 정렬할 수 없는 값일때, 서버 오류가 아니라 400으로 응답
+ * 리포지토리 예외 변환에 감싸이지 않게 RuntimeException
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSortException extends RuntimeException {
+
+    public InvalidSortException(String property, Collection<String> sortable) {
+        super("정렬할 수 없는 속성입니다: " + property + ", 가능한 값 " + sortable);
+    }
+}
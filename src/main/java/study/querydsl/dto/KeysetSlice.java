@@ -0,0 +1,29 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 결과, 스프링 데이터 Slice처럼 전체 카운트 없이 다음 페이지가 있는지만 알려줌
+ * 다음 페이지는 nextCursor를 그대로 넘겨서 조회
+ */
+@Getter
+public class KeysetSlice<T> {
+
+    private final List<T> content;
+
+    private final int size;
+
+    private final boolean hasNext;
+
+    /** 다음 페이지가 없으면 null */
+    private final String nextCursor;
+
+    public KeysetSlice(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
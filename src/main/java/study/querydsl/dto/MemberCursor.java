@@ -0,0 +1,87 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋 페이징 커서
+ * 이전 페이지 마지막 행의 (정렬 키 값, member_id)를 담고, 클라이언트에는 base64url 문자열로만 보여준다
+ * 클라이언트는 내용을 해석하지 않고 받은 nextCursor를 그대로 다시 넘기면 됨
+ *
+ * 인코딩 형식: 정렬키|값|member_id, 값에 '|'가 들어가도 되도록 처음과 마지막 구분자로 자름
+ */
+@Getter
+public class MemberCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final MemberKeysetSort sort;
+
+    /** 정렬 키 값, ID 정렬이면 null */
+    private final String value;
+
+    private final Long memberId;
+
+    private MemberCursor(MemberKeysetSort sort, String value, Long memberId) {
+        this.sort = sort;
+        this.value = value;
+        this.memberId = memberId;
+    }
+
+    /** 페이지의 마지막 행으로 다음 페이지 커서를 만듬 */
+    public static MemberCursor after(MemberKeysetSort sort, MemberTeamDto last) {
+        switch (sort) {
+            case AGE:
+                return new MemberCursor(sort, String.valueOf(last.getAge()), last.getMemberId());
+            case USERNAME:
+                return new MemberCursor(sort, last.getUsername(), last.getMemberId());
+            default:
+                return new MemberCursor(sort, null, last.getMemberId());
+        }
+    }
+
+    /** 비어있으면 첫 페이지라는 뜻이므로 null */
+    public static MemberCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("잘못된 커서입니다: " + cursor, e);
+        }
+
+        int first = raw.indexOf(SEPARATOR);
+        int last = raw.lastIndexOf(SEPARATOR);
+        if (first < 0 || first == last) {
+            throw new InvalidCursorException("잘못된 커서입니다: " + cursor);
+        }
+
+        try {
+            MemberKeysetSort sort = MemberKeysetSort.valueOf(raw.substring(0, first));
+            String value = raw.substring(first + 1, last);
+            Long memberId = Long.valueOf(raw.substring(last + 1));
+
+            if (sort == MemberKeysetSort.AGE) {
+                Integer.parseInt(value);
+            }
+            return new MemberCursor(sort, sort == MemberKeysetSort.ID ? null : value, memberId);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("잘못된 커서입니다: " + cursor, e);
+        }
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + (value == null ? "" : value) + SEPARATOR + memberId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getAge() {
+        return Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,13 @@
+package study.querydsl.dto;
+
+/**
+ * 키셋(seek) 페이징 정렬 기준
+ * 정렬 키가 같을 때는 항상 member_id로 한 번 더 정렬해서 순서가 유일하게 정해지도록 한다
+ * (정렬 키, member_id) 조합이 커서에 담김
+ *
+ * USERNAME은 username이 null이 아닌 회원 기준, null은 키셋 비교에서 빠짐
+ */
+public enum MemberKeysetSort {
+
+    ID, AGE, USERNAME
+}
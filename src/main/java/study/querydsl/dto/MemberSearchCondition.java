@@ -2,6 +2,8 @@ package study.querydsl.dto;
 
 import lombok.Data;
 
+import static org.springframework.util.StringUtils.isEmpty;
+
 /**
  * 회원 검색 조건
  * 밑에 필드중 하나로 검색하면 리스트에 나오는 필터링기능
@@ -21,4 +23,16 @@ public class MemberSearchCondition {
 
     private Integer ageLoe;
 
+    /**
+     * 같은 결과가 나오는 조건은 같은 값이 되도록 정리한 복사본, 캐시 키로 사용
+     * 빈 문자열은 조건이 없는 것과 같으므로 null로
+     */
+    public MemberSearchCondition normalized() {
+        MemberSearchCondition normalized = new MemberSearchCondition();
+        normalized.setUsername(isEmpty(username) ? null : username);
+        normalized.setTeamName(isEmpty(teamName) ? null : teamName);
+        normalized.setAgeGoe(ageGoe);
+        normalized.setAgeLoe(ageLoe);
+        return normalized;
+    }
 }
@@ -0,0 +1,28 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+/**
+ * 팀별 회원 목록(TeamWithMembersDto)의 회원 한 명
+ * teamId는 member.team_id 컬럼 그대로라 팀을 조인하지 않고 채움, 팀별로 묶을때 사용
+ */
+@Data
+public class TeamMemberDto {
+
+    private Long memberId;
+
+    private String username;
+
+    private int age;
+
+    private Long teamId;
+
+    @QueryProjection
+    public TeamMemberDto(Long memberId, String username, int age, Long teamId) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+        this.teamId = teamId;
+    }
+}
@@ -0,0 +1,27 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 팀 + 그 팀 회원 목록, /teams 응답
+ * 팀 페이지를 먼저 조회하고 회원은 TeamRepositoryCustom.searchTeamMembers에서 채움
+ */
+@Data
+public class TeamWithMembersDto {
+
+    private Long teamId;
+
+    private String teamName;
+
+    private List<TeamMemberDto> members = new ArrayList<>();
+
+    @QueryProjection
+    public TeamWithMembersDto(Long teamId, String teamName) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+    }
+}
@@ -2,6 +2,10 @@ package study.querydsl.entity;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
@@ -12,6 +16,10 @@ import javax.persistence.Id;
 @Getter @Setter
 public class Hello {
 
-    @Id @GeneratedValue
+    //공용 hibernate_sequence 대신 전용 시퀀스(pooled-lo), 크기는 querydsl.id.increment-size[hello_seq]
+    @Id
+    @GeneratedValue(generator = "hello_seq")
+    @GenericGenerator(name = "hello_seq", strategy = "study.querydsl.entity.PooledLoSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "hello_seq"))
     private Long id;
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package study.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import javax.persistence.*;
 
 //롬복 설명
@@ -11,14 +15,28 @@ import javax.persistence.*;
 
 //@ToString은 가급적 내부 필드만(연관관계 없는 필드만)
 //changeTeam() 으로 양방향 연관관계 한번에 처리(연관관계 편의 메소드)
+//검색 조건(MemberSearchCondition)에 맞춘 인덱스, ddl-auto로 테이블을 만들때 같이 생성
+//회원명 = ?, 팀 조인 후 나이 범위(team_id, age), 나이 범위만 있을때(age)
+//team_id로 시작하는 인덱스가 있으므로 외래키용 인덱스를 따로 만들지 않아도 됨
+//회원 + 팀을 같이 읽는 엔티티 그래프, FetchPlan.MEMBER_TEAM
 @Entity
+@NamedEntityGraph(name = "Member.team", attributeNodes = @NamedAttributeNode("team"))
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"),
+        @Index(name = "idx_member_team_age", columnList = "team_id, age"),
+        @Index(name = "idx_member_age", columnList = "age")
+})
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 public class Member {
 
+    //회원 전용 시퀀스, increment_size만큼 id를 한 번에 받아와서(pooled-lo) insert마다 시퀀스를 조회하지 않음
+    //크기는 querydsl.id.increment-size[member_seq], PooledLoSequenceGenerator 참고
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "member_seq")
+    @GenericGenerator(name = "member_seq", strategy = "study.querydsl.entity.PooledLoSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "member_seq"))
     //db에는 이 이름으로 컬럼명을 줌
     @Column(name = "member_id")
     private Long id;
@@ -49,9 +67,19 @@ public class Member {
         }
     }
 
+    //팀 컬렉션(Team.members)은 필요 없으면 로딩하지 않음, 팀이 크면 회원 한 명 옮기려고 팀 전체를 읽게 되므로
+    //아직 로딩 안된 팀(프록시)은 건드리지 않음, 팀을 나중에 읽으면 db에서 바뀐 값으로 읽음
     public void changeTeam(Team team) {
+        Team previous = this.team;
         this.team = team;
+
+        //이전 팀에서 빼기, 이미 로딩된 컬렉션일때만
+        if (previous != null && previous != team && Hibernate.isInitialized(previous)) {
+            previous.removeMember(this);
+        }
         //팀에 연관되어있는 나도 값을 세팅
-        team.getMembers().add(this);
+        if (team != null && Hibernate.isInitialized(team)) {
+            team.addMember(this);
+        }
     }
 }
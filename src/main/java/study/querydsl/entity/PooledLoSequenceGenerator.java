@@ -0,0 +1,50 @@
+package study.querydsl.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import study.querydsl.config.IdProperties;
+
+import java.util.Properties;
+
+/**
+ * 엔티티마다 따로 쓰는 시퀀스 + pooled-lo 옵티마이저 id 생성기
+ * 시퀀스를 한 번 조회하면 그 값부터 increment_size개의 id를 메모리에서 나눠줌, persist마다 시퀀스를 조회하지 않음
+ *
+ * 크기는 application.yml의 querydsl.id(IdProperties)로 바꿀 수 있음
+ * querydsl.id.increment-size[시퀀스이름](member_seq) > querydsl.id.default-increment-size > 50
+ *
+ * db 시퀀스가 increment_size씩 올라가므로 여러 인스턴스가 같은 시퀀스를 써도 서로 다른 범위를 받음
+ * 단, 모든 인스턴스의 크기가 같아야 함
+ * 시퀀스가 있는 db(H2 등)는 db 시퀀스의 increment와 다르면 하이버네이트가 시작할때 실패함
+ * (hibernate.id.sequence.increment_size_mismatch_strategy 기본값 EXCEPTION)
+ *
+ * 시퀀스가 없는 db(MySQL)는 같은 이름의 테이블(next_val 한 행)을 행 잠금으로 올려서 똑같이 동작하지만
+ * 테이블에는 크기가 남지 않아서 이 검사가 없음
+ * 크기가 다른 인스턴스가 섞이면 오류 없이 겹치는 범위를 나눠주므로(pk 중복으로 insert 실패)
+ * 크기를 바꿀때는 모든 인스턴스를 내리고 같이 바꿔야 함
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+
+    /** HibernateConfig가 IdProperties를 넣어두는 하이버네이트 설정 키 */
+    public static final String ID_PROPERTIES = "querydsl.id";
+
+    public static final int DEFAULT_INCREMENT_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object idProperties = serviceRegistry.getService(ConfigurationService.class).getSettings().get(ID_PROPERTIES);
+        int incrementSize = idProperties instanceof IdProperties
+                ? ((IdProperties) idProperties).incrementSizeOf(params.getProperty(SEQUENCE_PARAM))
+                : DEFAULT_INCREMENT_SIZE;
+
+        params.setProperty(INCREMENT_PARAM, String.valueOf(incrementSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -1,17 +1,35 @@
 package study.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
+//팀은 작고 거의 바뀌지 않는데 모든 회원 검색에 조인되므로 2차 캐시에 올려둠
+//ehcache.xml의 team 영역, 변경되면 하이버네이트가 캐시도 같이 갱신(READ_WRITE)
+//팀 이름 조건 검색은 팀을 이름 인덱스로 찾고 회원은 (team_id, age) 인덱스로 따라감
+//팀 + 회원 컬렉션을 같이 읽는 엔티티 그래프, FetchPlan.TEAM_MEMBERS
 @Entity
+@NamedEntityGraph(name = "Team.members", attributeNodes = @NamedAttributeNode("members"))
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
 public class Team {
 
-    @Id @GeneratedValue
+    //팀 전용 시퀀스(pooled-lo), 크기는 querydsl.id.increment-size[team_seq]
+    @Id
+    @GeneratedValue(generator = "team_seq")
+    @GenericGenerator(name = "team_seq", strategy = "study.querydsl.entity.PooledLoSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "team_seq"))
     @Column(name = "team_id")
     private Long id;
 
@@ -19,10 +37,24 @@ public class Team {
 
     //양방향 연관관계 때문에 연관관계 주인, 반대방향 세팅
     //외래키값을 업데이트 하지 않음
+    //컬렉션은 2차 캐시에 올리지 않음, 회원 쪽(Member.team)이 바뀌어도 이 컬렉션 캐시는 자동으로 무효화되지 않아서
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
         this.name = name;
     }
+
+    //Member.changeTeam()에서만 사용
+    //로딩 안된 컬렉션에 add하면 하이버네이트가 로딩하지 않고 쌓아뒀다가 나중에 로딩할때 반영(mappedBy 쪽 List)
+    void addMember(Member member) {
+        members.add(member);
+    }
+
+    //remove는 컬렉션을 로딩해야 해서 로딩된 경우에만
+    void removeMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+    }
 }
@@ -0,0 +1,162 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.config.SearchProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 페이징의 컨텐츠 쿼리와 카운트 쿼리를 동시에 실행
+ * 카운트는 검색용 스레드풀에서 새 읽기 전용 트랜잭션으로 돌고(스레드마다 EntityManager가 따로 잡힘)
+ * 컨텐츠는 요청 스레드에서 실행
+ * 컨텐츠를 보고 카운트가 필요 없으면(PageableExecutionUtils 기준) 카운트는 취소
+ *
+ * 꺼져있거나 풀이 꽉 찼으면 기존처럼 요청 스레드에서 순서대로 실행
+ *
+ * 스레드풀은 크기가 정해져 있어 트래픽이 몰려도 카운트가 커넥션을 무한정 가져가지 않음
+ * Executor 빈으로 등록하면 스프링 부트 기본 applicationTaskExecutor가 빠지므로 여기서 직접 만들어 씀
+ */
+@Component
+public class ConcurrentPageExecutor implements DisposableBean {
+
+    private final SearchProperties searchProperties;
+    private final ThreadPoolTaskExecutor countExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    /** 순서대로 실행했을 때보다 줄어든 시간 */
+    private final Timer savedTime;
+    private final Counter cancelledCounts;
+
+    public ConcurrentPageExecutor(SearchProperties searchProperties,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.searchProperties = searchProperties;
+        this.countExecutor = countExecutor(searchProperties.getParallelCount());
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.savedTime = Timer.builder("querydsl.search.count.parallel.saved")
+                .description("Wall-clock time saved by running the count query concurrently")
+                .register(meterRegistry);
+        this.cancelledCounts = Counter.builder("querydsl.search.count.parallel.cancelled")
+                .description("Concurrent count queries cancelled because the content made them unnecessary")
+                .register(meterRegistry);
+    }
+
+    private static ThreadPoolTaskExecutor countExecutor(SearchProperties.ParallelCount parallelCount) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("search-count-");
+        executor.setCorePoolSize(parallelCount.getPoolSize());
+        executor.setMaxPoolSize(parallelCount.getPoolSize());
+        executor.setQueueCapacity(parallelCount.getQueueCapacity());
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        countExecutor.shutdown();
+    }
+
+    public <T> Page<T> getPage(Supplier<List<T>> contentQuery, Pageable pageable, LongSupplier countQuery) {
+        if (!searchProperties.getParallelCount().isEnabled() || !canCountInAnotherTransaction()) {
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, countQuery);
+        }
+
+        long start = System.nanoTime();
+        Future<TimedCount> count;
+        try {
+            count = countExecutor.submit(() -> {
+                long countStart = System.nanoTime();
+                Long total = readOnlyTransaction.execute(status -> countQuery.getAsLong());
+                return new TimedCount(total, System.nanoTime() - countStart);
+            });
+        } catch (TaskRejectedException e) {
+            return PageableExecutionUtils.getPage(contentQuery.get(), pageable, countQuery);
+        }
+
+        List<T> content;
+        long contentNanos;
+        try {
+            content = contentQuery.get();
+            contentNanos = System.nanoTime() - start;
+        } catch (RuntimeException e) {
+            count.cancel(true);
+            throw e;
+        }
+
+        TimedCount[] awaited = new TimedCount[1];
+        Page<T> page = PageableExecutionUtils.getPage(content, pageable, () -> {
+            awaited[0] = await(count);
+            return awaited[0].total;
+        });
+
+        if (awaited[0] == null) {
+            count.cancel(true);
+            cancelledCounts.increment();
+        } else {
+            long saved = contentNanos + awaited[0].nanos - (System.nanoTime() - start);
+            savedTime.record(Duration.ofNanos(Math.max(0, saved)));
+        }
+        return page;
+    }
+
+    /**
+     * 요청 스레드가 쓰기 트랜잭션 안에 있으면 아직 커밋 안된 변경을 다른 트랜잭션의 카운트가 못 보므로
+     * 이때는 동시에 실행하지 않음
+     */
+    private boolean canCountInAnotherTransaction() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private TimedCount await(Future<TimedCount> count) {
+        try {
+            return count.get();
+        } catch (InterruptedException e) {
+            count.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("카운트 쿼리를 기다리다 인터럽트됨", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("카운트 쿼리 실패", cause);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("카운트 쿼리가 취소됨", e);
+        }
+    }
+
+    private static class TimedCount {
+
+        private final long total;
+        private final long nanos;
+
+        private TimedCount(Long total, long nanos) {
+            this.total = total == null ? 0 : total;
+            this.nanos = nanos;
+        }
+    }
+}
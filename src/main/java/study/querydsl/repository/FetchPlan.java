@@ -0,0 +1,52 @@
+package study.querydsl.repository;
+
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+/**
+ * 엔티티 조회때 같이 읽을 연관관계, 엔티티에 선언한 @NamedEntityGraph 이름
+ * .join(member.team, team).fetchJoin()을 쿼리마다 직접 쓰지 않고 호출할때 고름
+ *
+ * 페이징 없는 조회는 엔티티 그래프로 fetch join
+ * 페이징 조회는 다대일(MEMBER_TEAM)이면 행이 늘지 않으므로 그대로 fetch join,
+ * 컬렉션(TEAM_MEMBERS)이면 페이지를 먼저 읽고 그 엔티티들의 컬렉션을 in 쿼리 한 번으로 채움
+ * 컬렉션 fetch join에 페이징을 걸면 하이버네이트가 전부 읽고 메모리에서 자르므로
+ * hibernate.query.fail_on_pagination_over_collection_fetch로 아예 막아둠
+ */
+public enum FetchPlan {
+
+    /** 연관관계는 지연 로딩 그대로 */
+    NONE(null, null, false),
+
+    /** 회원 + 팀 */
+    MEMBER_TEAM("Member.team", Member.class, false),
+
+    /** 팀 + 회원 컬렉션 */
+    TEAM_MEMBERS("Team.members", Team.class, true);
+
+    private final String graphName;
+
+    private final Class<?> rootType;
+
+    private final boolean collection;
+
+    FetchPlan(String graphName, Class<?> rootType, boolean collection) {
+        this.graphName = graphName;
+        this.rootType = rootType;
+        this.collection = collection;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    /** 컬렉션을 같이 읽으면 true, 페이징할때 fetch join 대신 따로 채움 */
+    public boolean isCollection() {
+        return collection;
+    }
+
+    /** 이 계획을 쓸 수 있는 조회 대상 엔티티인지, NONE은 모두 */
+    public boolean supports(Class<?> type) {
+        return rootType == null || rootType == type;
+    }
+}
@@ -0,0 +1,69 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.EntityPathBase;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * FetchPlan대로 엔티티 조회를 실행, 리포지토리 구현체들이 같이 씀
+ */
+final class FetchPlans {
+
+    private FetchPlans() {
+    }
+
+    static <T> List<T> fetch(EntityManager em, EntityPathBase<T> root, JPAQuery<T> query, FetchPlan fetchPlan) {
+        checkRoot(root, fetchPlan);
+        return withGraph(em, query, fetchPlan).fetch();
+    }
+
+    /**
+     * pageable의 정렬, offset, limit을 걸어서 조회
+     * 컬렉션 계획이면 페이지(엔티티)만 먼저 읽고, 같은 엔티티를 in 쿼리 + 엔티티 그래프로 한 번 더 읽어서 컬렉션을 채움
+     * 영속성 컨텍스트에 이미 있는 엔티티라 두 번째 쿼리는 새 객체를 만들지 않고 초기화 안된 컬렉션만 채움
+     */
+    static <T> Page<T> fetchPage(EntityManager em, EntityPathBase<T> root, JPAQuery<T> query,
+                                 JPAQuery<Long> countQuery, Pageable pageable, FetchPlan fetchPlan) {
+        checkRoot(root, fetchPlan);
+        new Querydsl(em, new PathBuilder<>(root.getType(), root.getMetadata())).applyPagination(pageable, query);
+
+        List<T> content;
+        if (fetchPlan.isCollection()) {
+            content = query.fetch();
+            if (!content.isEmpty()) {
+                withGraph(em, new JPAQuery<T>(em).select(root).from(root).where(root.in(content)), fetchPlan)
+                        .fetch();
+            }
+        } else {
+            content = withGraph(em, query, fetchPlan).fetch();
+        }
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    private static <T> JPAQuery<T> withGraph(EntityManager em, JPAQuery<T> query, FetchPlan fetchPlan) {
+        if (fetchPlan.getGraphName() == null) {
+            return query;
+        }
+        query.setHint(GraphSemantic.FETCH.getJpaHintName(), em.getEntityGraph(fetchPlan.getGraphName()));
+        if (fetchPlan.isCollection()) {
+            //컬렉션 fetch join은 루트 엔티티가 컬렉션 크기만큼 중복되므로 distinct, SQL에는 안 넘김
+            query.distinct().setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false);
+        }
+        return query;
+    }
+
+    private static void checkRoot(EntityPathBase<?> root, FetchPlan fetchPlan) {
+        if (!fetchPlan.supports(root.getType())) {
+            throw new IllegalArgumentException(fetchPlan + " cannot be used for " + root.getType().getSimpleName());
+        }
+    }
+}
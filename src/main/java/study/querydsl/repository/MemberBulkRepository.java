@@ -0,0 +1,240 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import lombok.Getter;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.config.BulkProperties;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 회원 벌크 update/delete
+ * QuerydslBasicTest.bulkUpdate처럼 한 문장으로 테이블 전체를 바꾸면 끝날때까지 락을 잡고,
+ * 영속성 컨텍스트에 남은 엔티티는 db와 값이 달라짐
+ *
+ * 조건에 맞는 회원을 member_id 순서로 chunkSize명씩 끊고(직전 범위의 마지막 id 다음부터 chunkSize번째 id까지)
+ * 범위마다 새 트랜잭션에서 실행, 커밋
+ * 범위가 끝날때마다 호출한 쪽 영속성 컨텍스트(OSIV 등)에서 그 범위의 회원을 detach 해서 다음에 db에서 다시 읽게 함
+ *
+ * 범위마다 커밋하므로 트랜잭션 안에서 부르면 안됨(바깥 트랜잭션이 잡은 락을 기다리게 됨)
+ * 조건은 bulk update/delete라 member 컬럼만 쓸 수 있음, 팀 조건은 서브쿼리로
+ */
+@Repository
+public class MemberBulkRepository {
+
+    private final EntityManagerFactory emf;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkProperties bulkProperties;
+
+    public MemberBulkRepository(EntityManagerFactory emf, JPAQueryFactory queryFactory,
+                                PlatformTransactionManager transactionManager, BulkProperties bulkProperties) {
+        this.emf = emf;
+        this.queryFactory = queryFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.bulkProperties = bulkProperties;
+    }
+
+    /**
+     * 예) update(member.age.lt(28), update -> update.set(member.username, "비회원"), progress -> ...)
+     */
+    public BulkResult update(Predicate predicate, Consumer<JPAUpdateClause> assignments,
+                             ProgressListener listener) {
+        return update(predicate, assignments, bulkProperties.getChunkSize(), listener);
+    }
+
+    public BulkResult update(Predicate predicate, Consumer<JPAUpdateClause> assignments, int chunkSize,
+                             ProgressListener listener) {
+        return execute(predicate, chunkSize, listener, range -> {
+            JPAUpdateClause update = queryFactory.update(member);
+            assignments.accept(update);
+            return update.where(predicate, range).execute();
+        });
+    }
+
+    public BulkResult delete(Predicate predicate, ProgressListener listener) {
+        return delete(predicate, bulkProperties.getChunkSize(), listener);
+    }
+
+    public BulkResult delete(Predicate predicate, int chunkSize, ProgressListener listener) {
+        return execute(predicate, chunkSize, listener, range -> queryFactory
+                .delete(member)
+                .where(predicate, range)
+                .execute());
+    }
+
+    private BulkResult execute(Predicate predicate, int chunkSize, ProgressListener listener, ChunkStatement statement) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalTransactionStateException("벌크 작업은 범위마다 커밋하므로 트랜잭션 밖에서 호출해야 함");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상: " + chunkSize);
+        }
+
+        long start = System.nanoTime();
+
+        Long count = queryFactory
+                .select(member.count())
+                .from(member)
+                .where(predicate)
+                .fetchOne();
+        long expectedRows = count == null ? 0 : count;
+
+        long affected = 0;
+        int chunks = 0;
+        Long lastId = null;
+        Long toId;
+        while ((toId = nextUpperId(predicate, lastId, chunkSize)) != null) {
+            BooleanExpression range = lastId == null ? member.id.loe(toId) : member.id.gt(lastId).and(member.id.loe(toId));
+            Long rows = transactionTemplate.execute(status -> statement.execute(range));
+            long chunkRows = rows == null ? 0 : rows;
+
+            detach(lastId, toId);
+
+            affected += chunkRows;
+            chunks++;
+            lastId = toId;
+            if (listener != null) {
+                listener.onChunk(new Progress(chunks, toId, chunkRows, affected, expectedRows));
+            }
+        }
+        return new BulkResult(affected, chunks, System.nanoTime() - start);
+    }
+
+    /**
+     * lastId 다음부터 조건에 맞는 chunkSize번째 회원 id, 남은 회원이 chunkSize보다 적으면 남은 것 중 최대 id
+     * 남은 회원이 없으면 null
+     * id 범위를 chunkSize로 나누면 id가 듬성듬성할때 빈 범위마다 트랜잭션이 생기므로 실제 회원 수로 자름
+     */
+    private Long nextUpperId(Predicate predicate, Long lastId, int chunkSize) {
+        BooleanExpression after = lastId == null ? null : member.id.gt(lastId);
+        Long upper = queryFactory
+                .select(member.id)
+                .from(member)
+                .where(predicate, after)
+                .orderBy(member.id.asc())
+                .offset(chunkSize - 1)
+                .fetchFirst();
+        if (upper != null) {
+            return upper;
+        }
+        return queryFactory
+                .select(member.id.max())
+                .from(member)
+                .where(predicate, after)
+                .fetchOne();
+    }
+
+    /**
+     * 호출한 쪽 영속성 컨텍스트에 올라와 있는 그 범위의 회원을 detach
+     * 그 회원이 들어있는 로딩된 팀 회원 컬렉션도 값이 틀려졌으므로 팀도 detach
+     * 스레드에 바인딩된 EntityManager(OSIV 등)가 없으면 남아있는 엔티티도 없으므로 할 일 없음
+     * 공유 EntityManager의 unwrap은 바인딩된 게 없으면 예외라서 직접 꺼냄
+     */
+    private void detach(Long afterId, long toId) {
+        Object resource = TransactionSynchronizationManager.getResource(emf);
+        if (!(resource instanceof EntityManagerHolder)) {
+            return;
+        }
+        SessionImplementor session = ((EntityManagerHolder) resource).getEntityManager()
+                .unwrap(SessionImplementor.class);
+
+        List<Object> members = new ArrayList<>();
+        Set<Team> teams = new HashSet<>();
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContext().reentrantSafeEntityEntries()) {
+            if (!(entry.getKey() instanceof Member)) {
+                continue;
+            }
+            Long id = (Long) entry.getValue().getId();
+            if (id != null && (afterId == null || id > afterId) && id <= toId) {
+                Member detached = (Member) entry.getKey();
+                members.add(detached);
+                if (detached.getTeam() != null && Hibernate.isInitialized(detached.getTeam())
+                        && Hibernate.isInitialized(detached.getTeam().getMembers())) {
+                    teams.add(detached.getTeam());
+                }
+            }
+        }
+
+        members.forEach(session::detach);
+        teams.forEach(session::detach);
+    }
+
+    @FunctionalInterface
+    private interface ChunkStatement {
+        long execute(BooleanExpression range);
+    }
+
+    /** 범위 하나가 커밋될때마다 호출 */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onChunk(Progress progress);
+    }
+
+    @Getter
+    public static class Progress {
+
+        /** 1부터 */
+        private final int chunk;
+        /** 이번 범위의 마지막 회원 id, 다음 범위는 이 id 다음부터 */
+        private final long toId;
+        private final long chunkRows;
+        private final long totalRows;
+        /** 시작할때 센 조건에 맞는 회원 수 */
+        private final long expectedRows;
+
+        private Progress(int chunk, long toId, long chunkRows, long totalRows, long expectedRows) {
+            this.chunk = chunk;
+            this.toId = toId;
+            this.chunkRows = chunkRows;
+            this.totalRows = totalRows;
+            this.expectedRows = expectedRows;
+        }
+
+        /** 처리한 행 수 기준 진행률 0.0 ~ 1.0, 도중에 다른 곳에서 추가된 회원이 있으면 1.0에서 멈춤 */
+        public double getRatio() {
+            return expectedRows == 0 ? 1.0 : Math.min(1.0, (double) totalRows / expectedRows);
+        }
+    }
+
+    @Getter
+    public static class BulkResult {
+
+        private final long affectedRows;
+        private final int chunks;
+        private final long elapsedNanos;
+
+        private BulkResult(long affectedRows, int chunks, long elapsedNanos) {
+            this.affectedRows = affectedRows;
+            this.chunks = chunks;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+    }
+}
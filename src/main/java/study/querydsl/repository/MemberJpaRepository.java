@@ -2,18 +2,25 @@ package study.querydsl.repository;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 //import study.querydsl.dto.MemberSearchCondition;
 //import study.querydsl.dto.MemberTeamDto;
 //import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.config.MemberSearchCache;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamDtoMapper;
 import study.querydsl.dto.QMemberTeamDto;
 import study.querydsl.entity.Member;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import static org.springframework.util.StringUtils.hasText;
 import static org.springframework.util.StringUtils.isEmpty;
 import static study.querydsl.entity.QMember.member;
@@ -26,6 +33,9 @@ import static study.querydsl.entity.QTeam.team;
 @Repository
 public class MemberJpaRepository {
 
+    /** 팀 이름 조건 검색을 담는 쿼리 캐시 영역, ehcache.xml */
+    static final String TEAM_QUERY_CACHE_REGION = "query.memberByTeam";
+
     //JPA에 접근하기 위해 필요
     private final EntityManager em;
 
@@ -75,9 +85,57 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    /**
+     * 읽기 전용 조회, 위 findAll, findAll_Querydsl, findByUsername_Querydsl과 같은 결과
+     * 엔티티는 영속성 컨텍스트에 올라가지만 변경 감지용 스냅샷(값 복사본)을 만들지 않아서 행마다 메모리가 줄어듬
+     * 값을 바꿔도 update가 나가지 않고, 조회 전에 자동 flush도 하지 않음(COMMIT)
+     *
+     * @Transactional(readOnly = true) 안에서는 스프링이 세션 전체를 읽기 전용으로 만들어서 같은 효과,
+     * 쓰기 트랜잭션이나 트랜잭션 없이 많이 읽기만 할때 사용
+     */
+    public List<Member> findAllReadOnly() {
+        return em.createQuery("select m from Member m", Member.class)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.COMMIT)
+                .getResultList();
+    }
+
+    public List<Member> findAll_QuerydslReadOnly() {
+        return readOnly(queryFactory.selectFrom(member)).fetch();
+    }
+
+    public List<Member> findByUsername_QuerydslReadOnly(String username) {
+        return readOnly(queryFactory
+                .selectFrom(member)
+                .where(member.username.eq(username)))
+                .fetch();
+    }
+
+    /**
+     * 연관관계를 같이 읽는 조회, FetchPlan.MEMBER_TEAM이면 .join(member.team, team).fetchJoin()을 직접 쓴 것과 같음
+     * 팀을 꺼낼때마다 select가 나가지 않음(N+1)
+     */
+    public List<Member> findAll_Querydsl(FetchPlan fetchPlan) {
+        return FetchPlans.fetch(em, member, queryFactory.selectFrom(member), fetchPlan);
+    }
+
+    public List<Member> findByUsername_Querydsl(String username, FetchPlan fetchPlan) {
+        return FetchPlans.fetch(em, member, queryFactory
+                .selectFrom(member)
+                .where(member.username.eq(username)), fetchPlan);
+    }
+
+    private <T> JPAQuery<T> readOnly(JPAQuery<T> query) {
+        return query
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.COMMIT);
+    }
+
     //MemberSearchCondition
     //Builder 사용
     //회원명, 팀명, 나이(ageGoe, ageLoe)
+    @Cacheable(cacheNames = MemberSearchCache.NAME, keyGenerator = "memberSearchKeyGenerator",
+            condition = "@memberSearchCache.isCacheable('MemberJpaRepository.searchByBuilder')")
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
 
         BooleanBuilder builder = new BooleanBuilder();
@@ -102,7 +160,7 @@ public class MemberJpaRepository {
             builder.and(member.age.loe(condition.getAgeLoe()));
         }
 
-        return queryFactory
+        return joinTeam(queryFactory
                 //원하는 컬럼만 조회
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -110,9 +168,8 @@ public class MemberJpaRepository {
                         member.age,
                         team.id.as("teamId"),
                         team.name.as("teamName")))
-                .from(member)
-                //팀의 데이터 다 가져오므로 조인
-                .leftJoin(member.team, team)
+                .from(member), condition)
+                //팀의 데이터 다 가져오므로 조인, 팀 이름 조건이 있으면 inner join
                 //완성된 조건 넣음음
                 .where(builder)
                 .fetch();
@@ -123,24 +180,53 @@ public class MemberJpaRepository {
 //    조건 재사용 가능, list의 제네릭을 바꿔도
 
     //회원명, 팀명, 나이(ageGoe, ageLoe)
+    @Cacheable(cacheNames = MemberSearchCache.NAME, keyGenerator = "memberSearchKeyGenerator",
+            condition = "@memberSearchCache.isCacheable('MemberJpaRepository.search')")
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
 
-        return queryFactory
-                .select(new QMemberTeamDto(
+        return joinTeam(queryFactory
+                .select(MemberTeamDtoMapper.projection(
                         member.id,
                         member.username,
                         member.age,
                         team.id,
                         team.name))
-                .from(member)
-                .leftJoin(member.team, team)
+                .from(member), condition)
                 .where(usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe()))
+                //팀 이름으로 거르는 검색은 하이버네이트 쿼리 캐시 사용
+                .setHint(QueryHints.HINT_CACHEABLE, !isEmpty(condition.getTeamName()))
+                .setHint(QueryHints.HINT_CACHE_REGION, TEAM_QUERY_CACHE_REGION)
                 .fetch();
     }
 
+    /**
+     * search와 같은 조건이지만 결과를 List로 다 모으지 않고 Stream으로 한 행씩 넘겨줌
+     * 하이버네이트가 forward-only 스크롤로 읽고, fetchSize만큼씩 드라이버가 가져오므로
+     * 결과가 몇 건이든 메모리 사용량이 일정
+     *
+     * DTO 조회라 영속성 컨텍스트에 쌓이지 않음
+     * 스트림을 다 쓸때까지 트랜잭션(커넥션)이 열려 있어야 하고, 다 쓰면 꼭 close
+     */
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition condition, int fetchSize) {
+        return joinTeam(queryFactory
+                .select(MemberTeamDtoMapper.projection(
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name))
+                .from(member), condition)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .stream();
+    }
+
     //조합할수 있게 BooleanExpression로
     private BooleanExpression usernameEq(String username) {
         //비어있으면 null 비어있지 않으면 조건을 반환
@@ -158,4 +244,14 @@ public class MemberJpaRepository {
     private BooleanExpression ageLoe(Integer ageLoe) {
         return ageLoe == null ? null : member.age.loe(ageLoe);
     }
+
+    /**
+     * 팀 이름 조건이 있으면 team.name = ? 가 팀 없는 회원을 어차피 걸러내므로 inner join으로 바꿈
+     * left join이면 db가 member부터 읽어야 해서 팀 이름 인덱스를 쓰지 못하고 회원 전체를 훑음
+     */
+    private <T> JPAQuery<T> joinTeam(JPAQuery<T> query, MemberSearchCondition condition) {
+        return isEmpty(condition.getTeamName())
+                ? query.leftJoin(member.team, team)
+                : query.join(member.team, team);
+    }
 }
@@ -1,8 +1,12 @@
 package study.querydsl.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import study.querydsl.entity.Member;
+
+import javax.persistence.QueryHint;
 import java.util.List;
 
 /**
@@ -28,4 +32,16 @@ public interface MemberRepository extends JpaRepository<Member, Long> ,MemberRep
     //메서드만 만들면 메서드이름을 이용해 쿼리 만드는
     //select m from Member m where
     List<Member> findByUsername(String username);
+
+    //읽기 전용 조회, 변경 감지용 스냅샷을 만들지 않고 조회 전에 flush도 하지 않음
+    //MemberJpaRepository.findAllReadOnly 설명 참고
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE, value = "COMMIT")})
+    @Query("select m from Member m")
+    List<Member> findAllReadOnly();
+
+    //find와 By 사이는 이름만, 조건은 findByUsername과 같음
+    @QueryHints({@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE, value = "COMMIT")})
+    List<Member> findReadOnlyByUsername(String username);
 }
@@ -1,10 +1,17 @@
 package study.querydsl.repository;
 
+import com.querydsl.core.types.Predicate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.CountStrategy;
+import study.querydsl.dto.CountedPage;
+import study.querydsl.dto.KeysetSlice;
+import study.querydsl.dto.MemberKeysetSort;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -39,4 +46,52 @@ public interface MemberRepositoryCustom {
 
     /** 데이터 내용과 전체 카운트를 별도로 조회하는 방법 */
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+
+    /**
+     * 카운트 방식을 호출하는 쪽에서 고르는 페이징
+     * 응답의 countStrategy에 실제로 total을 만든 방식이 들어감
+     * 순서는 member.id 오름차순(searchPageIdsFirst와 같은 페이지)
+     */
+    CountedPage<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable,
+                                          CountStrategy countStrategy);
+
+    /**
+     * searchPage와 같은 카운트 방식이지만 컨텐츠를 두 번에 나눠 조회
+     * 먼저 인덱스만으로 해당 페이지의 member.id를 구하고, 그 id로만 팀 조인 DTO를 만듬
+     * 깊은 페이지에서 건너뛰는 행마다 조인, DTO용 컬럼을 읽지 않음, 순서는 member.id 오름차순
+     */
+    CountedPage<MemberTeamDto> searchPageIdsFirst(MemberSearchCondition condition, Pageable pageable,
+                                                  CountStrategy countStrategy);
+
+    /**
+     * QuerydslPredicateExecutor.findAll(Predicate)의 읽기 전용 버전
+     * 엔티티에 변경 감지용 스냅샷을 만들지 않음, 값을 바꿔도 update가 나가지 않음
+     */
+    List<Member> findAllReadOnly(Predicate predicate);
+
+    /**
+     * QuerydslPredicateExecutor.findAll(Predicate)에 같이 읽을 연관관계(FetchPlan)를 지정
+     */
+    List<Member> findAll(Predicate predicate, FetchPlan fetchPlan);
+
+    /**
+     * QuerydslPredicateExecutor.findAll(Predicate, Pageable)에 FetchPlan 지정
+     * MEMBER_TEAM(다대일)은 페이징이어도 행이 늘지 않아서 fetch join
+     */
+    Page<Member> findAll(Predicate predicate, Pageable pageable, FetchPlan fetchPlan);
+
+    /**
+     * 여러 회원의 팀을 한 번에 바꿈, 바뀐 회원 수를 반환
+     * 영속성 컨텍스트에 올라와 있는 회원은 changeTeam()으로, 나머지는 벌크 update로 처리
+     * 어느 쪽이든 팀의 회원 컬렉션을 로딩하지 않음
+     */
+    long reassignTeam(Collection<Long> memberIds, Long teamId);
+
+    /**
+     * 키셋(seek) 페이징, offset 없이 이전 페이지 마지막 행 다음부터 조회
+     * 몇번째 페이지든 인덱스에서 바로 시작 위치를 찾기 때문에 깊은 페이지도 첫 페이지와 비슷한 속도
+     * cursor가 비어있으면 첫 페이지, 커서가 있으면 커서에 담긴 정렬 기준을 따름
+     */
+    KeysetSlice<MemberTeamDto> searchKeyset(MemberSearchCondition condition, MemberKeysetSort sort,
+                                            String cursor, int size);
 }
@@ -1,18 +1,45 @@
 package study.querydsl.repository;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.FlushMode;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.config.MemberSearchCache;
+import study.querydsl.config.SearchProperties;
+import study.querydsl.dto.CountStrategy;
+import study.querydsl.dto.CountedPage;
+import study.querydsl.dto.KeysetSlice;
+import study.querydsl.dto.MemberCursor;
+import study.querydsl.dto.MemberKeysetSort;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
-import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.dto.MemberTeamDtoMapper;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import static org.springframework.util.StringUtils.isEmpty;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
@@ -34,30 +61,80 @@ import static study.querydsl.entity.QTeam.team;
 //MemberRepositoryCustom을 상속받는 인터페이스 MemberRepository에 Impl을 꼭 맞춰서 이름 작성 */
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    /** 키셋 페이지 최대 크기, 스프링 데이터 기본 max-page-size와 같게 */
+    private static final int MAX_KEYSET_SIZE = 2000;
+
+    /** 팀 일괄 변경때 in 절 하나에 넣는 id 수 */
+    private static final int REASSIGN_CHUNK_SIZE = 1000;
+
+    /** 통계로 행 수를 읽을 테이블 */
+    private static final String MEMBER_TABLE = "member";
+
+    private final EntityManager em;
+
     //Querydsl쓰기 위해
     private final JPAQueryFactory queryFactory;
 
-    public MemberRepositoryImpl(EntityManager em) {
+    private final SearchProperties searchProperties;
+
+    private final TableStatistics tableStatistics;
+
+    private final ConcurrentPageExecutor concurrentPageExecutor;
+
+    private final SearchCoalescer searchCoalescer;
+
+    private final MemberSqlRepository memberSqlRepository;
+
+    /** 스프링 데이터가 사용자 정의 구현체도 빈으로 만들기 때문에 다른 빈도 생성자로 주입받을 수 있음 */
+    public MemberRepositoryImpl(EntityManager em, SearchProperties searchProperties,
+                                TableStatistics tableStatistics, ConcurrentPageExecutor concurrentPageExecutor,
+                                SearchCoalescer searchCoalescer, MemberSqlRepository memberSqlRepository) {
+        this.em = em;
         this.queryFactory = new JPAQueryFactory(em);
+        this.searchProperties = searchProperties;
+        this.tableStatistics = tableStatistics;
+        this.concurrentPageExecutor = concurrentPageExecutor;
+        this.searchCoalescer = searchCoalescer;
+        this.memberSqlRepository = memberSqlRepository;
     }
 
     /** 이전에 만든 메서드 갖고옴 */
     @Override
     /** 회원명, 팀명, 나이(ageGoe, ageLoe) */
+    @Cacheable(cacheNames = MemberSearchCache.NAME, keyGenerator = "memberSearchKeyGenerator",
+            condition = "@memberSearchCache.isCacheable('MemberRepositoryImpl.search')")
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
+        /** 동시에 들어온 같은 검색은 한 번만 실행 */
+        return searchCoalescer.execute(new SimpleKey("search", condition.normalized()), () ->
+                useSqlEngine() ? memberSqlRepository.search(condition) : doSearch(condition));
+    }
+
+    /**
+     * querydsl.search.engine=sql 이면 querydsl-sql로 실행
+     * 쓰기 트랜잭션 안에서는 flush 안된 변경이 SQL 쪽에 보이지 않으므로 JPA로 실행
+     */
+    private boolean useSqlEngine() {
+        return searchProperties.getEngine() == SearchProperties.Engine.SQL
+                && !(TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    private List<MemberTeamDto> doSearch(MemberSearchCondition condition) {
+        return joinTeam(queryFactory
+                .select(MemberTeamDtoMapper.projection(
                         member.id,
                         member.username,
                         member.age,
                         team.id,
                         team.name))
-                .from(member)
-                .leftJoin(member.team, team)
+                .from(member), condition)
                 .where(usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe()))
+                //팀 이름으로 거르는 검색은 하이버네이트 쿼리 캐시 사용
+                .setHint(QueryHints.HINT_CACHEABLE, !isEmpty(condition.getTeamName()))
+                .setHint(QueryHints.HINT_CACHE_REGION, MemberJpaRepository.TEAM_QUERY_CACHE_REGION)
                 .fetch();
     }
 
@@ -65,17 +142,23 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
      * 단순한 페이징, fetchResults() 사용
      */
     @Override
+    @Cacheable(cacheNames = MemberSearchCache.NAME, keyGenerator = "memberSearchKeyGenerator",
+            condition = "@memberSearchCache.isCacheable('MemberRepositoryImpl.searchPageSimple')")
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        return searchCoalescer.execute(new SimpleKey("searchPageSimple", condition.normalized(), pageable),
+                () -> doSearchPageSimple(condition, pageable));
+    }
 
-        QueryResults<MemberTeamDto> results = queryFactory
-                .select(new QMemberTeamDto(
+    private Page<MemberTeamDto> doSearchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+
+        QueryResults<MemberTeamDto> results = joinTeam(queryFactory
+                .select(MemberTeamDtoMapper.projection(
                         member.id,
                         member.username,
                         member.age,
                         team.id,
                         team.name))
-                .from(member)
-                .leftJoin(member.team, team)
+                .from(member), condition)
                 .where(usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
@@ -112,54 +195,48 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
      * 데이터 조회 쿼리와, 전체 카운트 쿼리를 분리, 위 코드는 한 꺼번에 하는
      */
     @Override
+    @Cacheable(cacheNames = MemberSearchCache.NAME, keyGenerator = "memberSearchKeyGenerator",
+            condition = "@memberSearchCache.isCacheable('MemberRepositoryImpl.searchPageComplex')")
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition,
                                                  Pageable pageable) {
-        List<MemberTeamDto> content = queryFactory
-                .select(new QMemberTeamDto(
+        return searchCoalescer.execute(new SimpleKey("searchPageComplex", condition.normalized(), pageable),
+                () -> doSearchPageComplex(condition, pageable));
+    }
+
+    private Page<MemberTeamDto> doSearchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        /** 컨텐츠 쿼리도 바로 실행하지 않고 넘겨서 카운트와 동시에 실행할 수 있게 */
+        Supplier<List<MemberTeamDto>> content = () -> joinTeam(queryFactory
+                .select(MemberTeamDtoMapper.projection(
                         member.id,
                         member.username,
                         member.age,
                         team.id,
                         team.name))
-                .from(member)
-                .leftJoin(member.team, team)
+                .from(member), condition)
                 .where(usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe()))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
-                .fetch();/** 바로 결과 가져오는 */
+                .setHint(QueryHints.HINT_CACHEABLE, !isEmpty(condition.getTeamName()))
+                .setHint(QueryHints.HINT_CACHE_REGION, MemberJpaRepository.TEAM_QUERY_CACHE_REGION)
+                .fetch();
 
         /**
          * 쿼리를 분리, 내가 직접 쿼리를 나눠 날리는, 최적화 가능,
          * 토탈쿼리가 더 간단할때는 따로 생성해
-         * 데이터가 많으면 분리?
-         * */
-        long total = queryFactory
-                .select(member)
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()))
-                .fetchCount();
-
-        /**
+         *
          * 스프링 데이터 라이브러리가 제공
          * count 쿼리가 생략 가능한 경우 생략해서 처리
          * 페이지 시작이면서 컨텐츠 사이즈가 페이지 사이즈보다 작을 때
          * 마지막 페이지 일 때 (offset + 컨텐츠 사이즈를 더해서 전체 사이즈 구함
+         *
+         * 카운트 쿼리는 조건을 보고 필요 없는 조인을 뺀 countQuery()로 만듬
          * */
-        JPAQuery<Long> countQuery = queryFactory
-                .select(member.count())
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()));
+        JPAQuery<Long> countQuery = countQuery(condition)
+                .setHint(QueryHints.HINT_CACHEABLE, !isEmpty(condition.getTeamName()))
+                .setHint(QueryHints.HINT_CACHE_REGION, MemberJpaRepository.TEAM_QUERY_CACHE_REGION);
 
         /**
          * JPAQuery<Member> countQuery면 countQuery.fetchCount()로 해야 실제 카운트쿼리 날아감
@@ -169,8 +246,345 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
          * 만약에 db에 100개 있는데 110개를 갖고오라하면 초과하니까 토탈쿼리 날릴 필요없음
          * 그냥 처음에 데이터 다 불러오므로, 두번쨰 페이지로 넘어갈 데이터가 없으므로
          * */
-        return PageableExecutionUtils.getPage(content, pageable, () -> countQuery.fetchCount());
-        //return new PageImpl<>(content, pageable, total);
+        /** querydsl.search.parallel-count.enabled면 카운트를 다른 스레드에서 동시에 실행 */
+        return concurrentPageExecutor.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    /**
+     * 카운트 방식을 고르는 페이징
+     * NONE은 pageSize + 1개를 조회해서 다음 페이지만 확인하고,
+     * 나머지는 컨텐츠를 먼저 조회한 뒤 컨텐츠만으로 전체 개수를 알 수 있으면 카운트 쿼리를 생략함
+     */
+    @Override
+    public CountedPage<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable,
+                                                 CountStrategy countStrategy) {
+        return searchCoalescer.execute(
+                new SimpleKey("searchPage", condition.normalized(), pageable, countStrategy),
+                () -> doSearchPage(condition, pageable, countStrategy));
+    }
+
+    /**
+     * 깊은 페이지용, 컨텐츠를 id 조회와 DTO 조회 두 번으로 나눔
+     * 카운트 처리는 searchPage와 같음
+     */
+    @Override
+    public CountedPage<MemberTeamDto> searchPageIdsFirst(MemberSearchCondition condition, Pageable pageable,
+                                                         CountStrategy countStrategy) {
+        return searchCoalescer.execute(
+                new SimpleKey("searchPageIdsFirst", condition.normalized(), pageable, countStrategy),
+                () -> doSearchPage(condition, pageable, countStrategy, this::fetchIdsFirst));
+    }
+
+    private CountedPage<MemberTeamDto> doSearchPage(MemberSearchCondition condition, Pageable pageable,
+                                                    CountStrategy countStrategy) {
+        return doSearchPage(condition, pageable, countStrategy, this::fetchContent);
+    }
+
+    /** 컨텐츠 조회만 바꿔 끼울 수 있게, (조건, offset, limit) -> 행 */
+    private CountedPage<MemberTeamDto> doSearchPage(MemberSearchCondition condition, Pageable pageable,
+                                                    CountStrategy countStrategy, ContentFetcher fetcher) {
+        int pageSize = pageable.getPageSize();
+        boolean slice = countStrategy == CountStrategy.NONE;
+
+        List<MemberTeamDto> rows = fetcher.fetch(condition, pageable.getOffset(), slice ? pageSize + 1 : pageSize);
+
+        if (slice) {
+            boolean hasNext = rows.size() > pageSize;
+            List<MemberTeamDto> content = hasNext ? rows.subList(0, pageSize) : rows;
+            return new CountedPage<>(content, pageable.getPageNumber(), pageSize, null, false,
+                    hasNext, CountStrategy.NONE);
+        }
+
+        //PageableExecutionUtils와 같은 판단, 첫 페이지가 덜 찼거나 마지막 페이지면 개수가 정해짐
+        if (pageable.getOffset() == 0 && rows.size() < pageSize
+                || !rows.isEmpty() && rows.size() < pageSize) {
+            long total = pageable.getOffset() + rows.size();
+            return new CountedPage<>(rows, pageable.getPageNumber(), pageSize, total, false,
+                    false, CountStrategy.EXACT);
+        }
+
+        CountStrategy used = countStrategy;
+        if (used == CountStrategy.ESTIMATED) {
+            //통계는 테이블 전체 행 수라서 조건이 있으면 의미가 없음
+            Long estimate = hasPredicate(condition) ? null : tableStatistics.estimateRowCount(MEMBER_TABLE);
+            if (estimate != null) {
+                //통계가 늦게 갱신되어 실제보다 작을 수 있으므로 지금 보이는 행까지는 보정
+                long total = Math.max(estimate, pageable.getOffset() + rows.size());
+                return new CountedPage<>(rows, pageable.getPageNumber(), pageSize, total, false,
+                        pageable.getOffset() + rows.size() < total, CountStrategy.ESTIMATED);
+            }
+            used = CountStrategy.CAPPED;
+        }
+
+        if (used == CountStrategy.CAPPED) {
+            int cap = searchProperties.getCountCap();
+            //id만 cap + 1개까지 가져와서 세면 그 이상은 읽지 않음
+            long counted = countBase(condition)
+                    .select(member.id)
+                    .limit(cap + 1L)
+                    .fetch()
+                    .size();
+
+            long seen = pageable.getOffset() + rows.size();
+            boolean capped = counted > cap;
+            long total = capped ? Math.max(cap, seen) : counted;
+            boolean hasNext = capped || seen < total;
+            return new CountedPage<>(rows, pageable.getPageNumber(), pageSize, total, capped,
+                    hasNext, CountStrategy.CAPPED);
+        }
+
+        Long total = countQuery(condition).fetchOne();
+
+        return new CountedPage<>(rows, pageable.getPageNumber(), pageSize, total, false,
+                pageable.getOffset() + rows.size() < total, CountStrategy.EXACT);
+    }
+
+    @FunctionalInterface
+    private interface ContentFetcher {
+        List<MemberTeamDto> fetch(MemberSearchCondition condition, long offset, long limit);
+    }
+
+    /**
+     * 한 번에 조회, 건너뛰는 offset 행마다 팀 조인과 DTO 컬럼을 다 만들고 버림
+     * fetchIdsFirst와 같은 페이지가 나오도록 member.id 오름차순
+     */
+    private List<MemberTeamDto> fetchContent(MemberSearchCondition condition, long offset, long limit) {
+        return joinTeam(queryFactory
+                .select(MemberTeamDtoMapper.projection(
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name))
+                .from(member), condition)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                .orderBy(member.id.asc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    /**
+     * 1단계: 카운트와 같은 from, where(countBase)로 id만 조회
+     * 조건 컬럼 인덱스에 member_id가 같이 들어있어서 건너뛰는 행은 인덱스만 읽고 끝남
+     * 2단계: 그 id들로만 팀을 조인해 DTO 조회, in 절은 순서를 보장하지 않으므로 1단계 순서로 다시 정렬
+     */
+    private List<MemberTeamDto> fetchIdsFirst(MemberSearchCondition condition, long offset, long limit) {
+        List<Long> ids = countBase(condition)
+                .select(member.id)
+                .orderBy(member.id.asc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, MemberTeamDto> byId = queryFactory
+                .select(MemberTeamDtoMapper.projection(
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.id.in(ids))
+                .fetch()
+                .stream()
+                .collect(Collectors.toMap(MemberTeamDto::getMemberId, Function.identity()));
+
+        List<MemberTeamDto> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            MemberTeamDto row = byId.get(id);
+            //두 쿼리 사이에 지워진 회원은 빠짐
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 카운트 쿼리, 컨텐츠 쿼리와 같은 행 수가 나오는 가장 단순한 형태로 만듬
+     * count(*)로 세서 db가 조건을 만족하는 가장 작은 인덱스만 읽고 셀 수 있게
+     */
+    private JPAQuery<Long> countQuery(MemberSearchCondition condition) {
+        return countBase(condition).select(Wildcard.count);
+    }
+
+    /**
+     * 카운트용 from, where
+     * member -> team은 다대일이라 left join을 해도 회원 수는 변하지 않음
+     * 그래서 팀 조건이 없으면 조인 자체를 뺌
+     * 팀 이름 조건이 있으면 team.name = ? 가 팀 없는 회원을 어차피 걸러내므로 inner join과 같은 결과,
+     * inner join이면 db가 team 쪽부터 읽는 순서도 고를 수 있음
+     */
+    private JPAQuery<?> countBase(MemberSearchCondition condition) {
+        JPAQuery<?> query = queryFactory.from(member);
+        if (!isEmpty(condition.getTeamName())) {
+            query.join(member.team, team);
+        }
+        return query.where(usernameEq(condition.getUsername()),
+                teamNameEq(condition.getTeamName()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()));
+    }
+
+    /**
+     * 컨텐츠 쿼리의 팀 조인
+     * 팀 이름 조건이 있으면 team.name = ? 가 팀 없는 회원을 어차피 걸러내므로 countBase와 같이 inner join,
+     * left join이면 db가 member부터 읽어야 해서 팀 이름 인덱스를 쓰지 못하고 회원 전체를 훑음
+     */
+    private <T> JPAQuery<T> joinTeam(JPAQuery<T> query, MemberSearchCondition condition) {
+        return isEmpty(condition.getTeamName())
+                ? query.leftJoin(member.team, team)
+                : query.join(member.team, team);
+    }
+
+    private boolean hasPredicate(MemberSearchCondition condition) {
+        return !isEmpty(condition.getUsername())
+                || !isEmpty(condition.getTeamName())
+                || condition.getAgeGoe() != null
+                || condition.getAgeLoe() != null;
+    }
+
+    @Override
+    public List<Member> findAllReadOnly(Predicate predicate) {
+        return queryFactory
+                .selectFrom(member)
+                .where(predicate)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.COMMIT)
+                .fetch();
+    }
+
+    @Override
+    public List<Member> findAll(Predicate predicate, FetchPlan fetchPlan) {
+        return FetchPlans.fetch(em, member, queryFactory.selectFrom(member).where(predicate), fetchPlan);
+    }
+
+    @Override
+    public Page<Member> findAll(Predicate predicate, Pageable pageable, FetchPlan fetchPlan) {
+        return FetchPlans.fetchPage(em, member,
+                queryFactory.selectFrom(member).where(predicate),
+                queryFactory.select(member.count()).from(member).where(predicate),
+                pageable, fetchPlan);
+    }
+
+    /**
+     * 이미 영속성 컨텍스트에 있는 회원은 엔티티로 바꿔야 메모리의 값과 db가 어긋나지 않음(flush때 batch update)
+     * 나머지는 엔티티를 읽지 않고 id in (...) 벌크 update, chunk 하나에 쿼리 하나
+     * 벌크 update 전에 하이버네이트가 member 테이블 변경을 먼저 flush 함
+     * 벌크 update는 영속성 컨텍스트를 거치지 않으므로 대상 팀의 회원 컬렉션이 이미 로딩되어 있으면
+     * 옮겨온 회원이 빠져 있음, 그때만 팀을 refresh 해서 컬렉션을 다시 읽게 함(MemberBulkRepository.detach와 같은 문제)
+     * 이전 팀 컬렉션은 로딩되어 있다면 그 회원들이 이미 올라와 있어 엔티티로 바뀌므로 따로 할 일 없음
+     */
+    @Override
+    @Transactional
+    public long reassignTeam(Collection<Long> memberIds, Long teamId) {
+        Team target = em.getReference(Team.class, teamId);
+
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+
+        long updated = 0;
+        List<Long> unmanaged = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(memberIds)) {
+            Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+            if (managed != null) {
+                ((Member) managed).changeTeam(target);
+                updated++;
+            } else {
+                unmanaged.add(id);
+            }
+        }
+
+        for (int from = 0; from < unmanaged.size(); from += REASSIGN_CHUNK_SIZE) {
+            List<Long> chunk = unmanaged.subList(from, Math.min(from + REASSIGN_CHUNK_SIZE, unmanaged.size()));
+            updated += queryFactory
+                    .update(member)
+                    .set(member.team, target)
+                    .where(member.id.in(chunk))
+                    .execute();
+        }
+
+        if (!unmanaged.isEmpty() && Hibernate.isInitialized(target) && Hibernate.isInitialized(target.getMembers())) {
+            em.refresh(target);
+        }
+        return updated;
+    }
+
+    /**
+     * 키셋 페이징
+     * offset을 쓰지 않고 where (정렬키, member_id) > (커서값, 커서 member_id) 로 시작 위치를 찾음
+     * size + 1개를 조회해서 하나 더 있으면 다음 페이지가 있는것
+     */
+    @Override
+    public KeysetSlice<MemberTeamDto> searchKeyset(MemberSearchCondition condition, MemberKeysetSort sort,
+                                                   String cursor, int size) {
+        MemberCursor after = MemberCursor.decode(cursor);
+        //커서가 있으면 커서를 만들때의 정렬 기준을 그대로 따라야 순서가 맞음
+        MemberKeysetSort keysetSort = after != null ? after.getSort() : sort;
+        int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_SIZE));
+
+        List<MemberTeamDto> rows = joinTeam(queryFactory
+                .select(MemberTeamDtoMapper.projection(
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name))
+                .from(member), condition)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        keysetAfter(keysetSort, after))
+                .orderBy(keysetOrder(keysetSort))
+                .limit(pageSize + 1)
+                .fetch();
+
+        boolean hasNext = rows.size() > pageSize;
+        List<MemberTeamDto> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext
+                ? MemberCursor.after(keysetSort, content.get(content.size() - 1)).encode()
+                : null;
+
+        return new KeysetSlice<>(content, pageSize, hasNext, nextCursor);
+    }
+
+    /** 커서 다음 행부터, 첫 페이지면 조건 없음 */
+    private BooleanExpression keysetAfter(MemberKeysetSort sort, MemberCursor after) {
+        if (after == null) {
+            return sort == MemberKeysetSort.USERNAME ? member.username.isNotNull() : null;
+        }
+
+        switch (sort) {
+            case AGE:
+                return member.age.gt(after.getAge())
+                        .or(member.age.eq(after.getAge()).and(member.id.gt(after.getMemberId())));
+            case USERNAME:
+                return member.username.gt(after.getValue())
+                        .or(member.username.eq(after.getValue()).and(member.id.gt(after.getMemberId())));
+            default:
+                return member.id.gt(after.getMemberId());
+        }
+    }
+
+    private OrderSpecifier<?>[] keysetOrder(MemberKeysetSort sort) {
+        switch (sort) {
+            case AGE:
+                return new OrderSpecifier<?>[]{member.age.asc(), member.id.asc()};
+            case USERNAME:
+                return new OrderSpecifier<?>[]{member.username.asc(), member.id.asc()};
+            default:
+                return new OrderSpecifier<?>[]{member.id.asc()};
+        }
     }
 
     private BooleanExpression usernameEq(String username) {
@@ -0,0 +1,74 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamDtoMapper;
+
+import java.util.List;
+
+import static org.springframework.util.StringUtils.isEmpty;
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+/**
+ * querydsl-sql로 만든 회원 검색, MemberRepositoryImpl.search와 같은 결과
+ * JPQL 생성, HQL 파싱, 엔티티 메타데이터 조회 없이 SQL을 바로 만들어 JDBC로 실행하고
+ * 생성된 MemberTeamDtoMapper로 행을 DTO 생성자에 바로 넘김
+ * querydsl.search.engine=sql 이면 MemberRepositoryImpl.search가 이쪽으로 넘김
+ *
+ * 영속성 컨텍스트를 거치지 않으므로 같은 트랜잭션에서 flush 안된 변경은 보이지 않음,
+ * 그래서 MemberRepositoryImpl은 쓰기 트랜잭션 안에서는 이쪽을 쓰지 않음
+ */
+@Repository
+public class MemberSqlRepository {
+
+    private final SQLQueryFactory queryFactory;
+
+    public MemberSqlRepository(SQLQueryFactory sqlQueryFactory) {
+        this.queryFactory = sqlQueryFactory;
+    }
+
+    /** SpringConnectionProvider가 트랜잭션에 묶인 커넥션만 쓰므로 트랜잭션 필요 */
+    @Transactional(readOnly = true)
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        SQLQuery<MemberTeamDto> query = queryFactory
+                .select(MemberTeamDtoMapper.projection(member.memberId, member.username, member.age,
+                        team.teamId, team.name))
+                .from(member);
+
+        //JPA 쪽과 같이 팀 이름 조건이 있으면 inner join
+        if (isEmpty(condition.getTeamName())) {
+            query.leftJoin(team).on(member.teamId.eq(team.teamId));
+        } else {
+            query.join(team).on(member.teamId.eq(team.teamId));
+        }
+
+        return query
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                .fetch();
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return isEmpty(username) ? null : member.username.eq(username);
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return isEmpty(teamName) ? null : team.name.eq(teamName);
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe == null ? null : member.age.goe(ageGoe);
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe == null ? null : member.age.loe(ageLoe);
+    }
+}
@@ -0,0 +1,79 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 같은 검색이 동시에 여러 개 들어오면 db에는 한 번만 보내고 결과를 나눠줌 (single-flight)
+ * 먼저 들어온 요청이 쿼리를 실행하고, 실행 중에 같은 키로 들어온 요청은 그 결과를 기다렸다가 받음
+ * 끝나면 바로 키를 지우기 때문에 결과를 저장해두는 캐시와는 다름
+ *
+ * 여러 요청이 같은 결과 객체를 받으므로 받은 결과는 읽기만 해야함
+ * 쓰기 트랜잭션 안에서는 자기 변경이 보여야 하므로 합치지 않고 바로 실행
+ */
+@Component
+public class SearchCoalescer {
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter coalesced;
+
+    public SearchCoalescer(MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("querydsl.search.coalesced")
+                .description("Search calls that shared an identical in-flight database execution")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> query) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return query.get();
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return (T) await(running);
+        }
+
+        try {
+            T result = query.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("같은 검색 결과를 기다리다 인터럽트됨", e);
+        } catch (ExecutionException e) {
+            //먼저 실행한 요청과 같은 예외를 그대로 받음
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package study.querydsl.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * db가 관리하는 테이블 통계에서 대략적인 행 수를 읽음
+ * count(*)처럼 테이블을 훑지 않아서 아주 싸지만, 마지막 통계 갱신 시점 기준이라 정확하지 않음
+ * H2, MySQL만 지원하고 나머지 db는 null
+ */
+@Component
+public class TableStatistics {
+
+    private static final String H2_ESTIMATE =
+            "select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES where TABLE_SCHEMA = SCHEMA() and TABLE_NAME = ?";
+
+    private static final String MYSQL_ESTIMATE =
+            "select TABLE_ROWS from information_schema.TABLES where TABLE_SCHEMA = database() and TABLE_NAME = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** db 종류는 실행중에 바뀌지 않으므로 한 번만 확인 */
+    private volatile String databaseProduct;
+
+    public TableStatistics(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** 통계가 없거나 지원하지 않는 db면 null */
+    public Long estimateRowCount(String tableName) {
+        String sql;
+        String name;
+        switch (databaseProduct()) {
+            case "H2":
+                sql = H2_ESTIMATE;
+                //H2는 따옴표 없는 이름을 대문자로 저장
+                name = tableName.toUpperCase(Locale.ROOT);
+                break;
+            case "MySQL":
+                sql = MYSQL_ESTIMATE;
+                name = tableName;
+                break;
+            default:
+                return null;
+        }
+
+        List<Long> rows = jdbcTemplate.queryForList(sql, Long.class, name);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private String databaseProduct() {
+        if (databaseProduct == null) {
+            databaseProduct = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        }
+        return databaseProduct;
+    }
+}
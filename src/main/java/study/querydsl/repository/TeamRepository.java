@@ -0,0 +1,12 @@
+package study.querydsl.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import study.querydsl.entity.Team;
+
+/**
+ * 팀 스프링 데이터 리포지토리, 사용자 정의 기능은 TeamRepositoryCustom(TeamRepositoryImpl)
+ */
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom,
+        QuerydslPredicateExecutor<Team> {
+}
@@ -0,0 +1,32 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.TeamWithMembersDto;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+public interface TeamRepositoryCustom {
+
+    /**
+     * QuerydslPredicateExecutor.findAll(Predicate)에 같이 읽을 연관관계(FetchPlan)를 지정
+     */
+    List<Team> findAll(Predicate predicate, FetchPlan fetchPlan);
+
+    /**
+     * 페이징 버전, TEAM_MEMBERS는 팀 페이지를 먼저 읽고 그 팀들의 회원을 in 쿼리 한 번으로 채움
+     * 컬렉션 fetch join + 페이징(메모리에서 자르기)은 하지 않음
+     */
+    Page<Team> findAll(Predicate predicate, Pageable pageable, FetchPlan fetchPlan);
+
+    /**
+     * 팀 페이지 + 팀마다 회원 DTO 목록
+     * 팀 페이지를 먼저 조회하고, 그 팀들의 회원을 member.team.id in (...) 한 번으로 읽어서 메모리에서 팀별로 묶음
+     * 페이지 크기와 상관없이 쿼리는 팀 페이지, 회원, 카운트(필요할때만) 세 번
+     * 팀 이름이 비어 있으면 전체, 정렬은 Team 필드(id, name), 같은 값은 id 순
+     * 다른 정렬 속성이면 InvalidSortException(400)
+     */
+    Page<TeamWithMembersDto> searchTeamMembers(String teamName, Pageable pageable);
+}
@@ -0,0 +1,98 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.data.support.PageableExecutionUtils;
+import study.querydsl.dto.InvalidSortException;
+import study.querydsl.dto.TeamMemberDto;
+import study.querydsl.dto.TeamMemberDtoMapper;
+import study.querydsl.dto.TeamWithMembersDto;
+import study.querydsl.dto.TeamWithMembersDtoMapper;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.util.StringUtils.isEmpty;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    /** searchTeamMembers에서 정렬할 수 있는 Team 필드, 나머지는 PathBuilder가 그대로 JPQL에 넣어서 하이버네이트 오류(500)가 됨 */
+    private static final Set<String> TEAM_SORTABLE = Set.of("id", "name");
+
+    private final EntityManager em;
+
+    private final JPAQueryFactory queryFactory;
+
+    public TeamRepositoryImpl(EntityManager em) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    @Override
+    public List<Team> findAll(Predicate predicate, FetchPlan fetchPlan) {
+        return FetchPlans.fetch(em, team, queryFactory.selectFrom(team).where(predicate), fetchPlan);
+    }
+
+    @Override
+    public Page<Team> findAll(Predicate predicate, Pageable pageable, FetchPlan fetchPlan) {
+        return FetchPlans.fetchPage(em, team,
+                queryFactory.selectFrom(team).where(predicate),
+                queryFactory.select(team.count()).from(team).where(predicate),
+                pageable, fetchPlan);
+    }
+
+    @Override
+    public Page<TeamWithMembersDto> searchTeamMembers(String teamName, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!TEAM_SORTABLE.contains(order.getProperty())) {
+                throw new InvalidSortException(order.getProperty(), TEAM_SORTABLE);
+            }
+        }
+
+        JPAQuery<TeamWithMembersDto> query = queryFactory
+                .select(TeamWithMembersDtoMapper.projection(team.id, team.name))
+                .from(team)
+                .where(teamNameEq(teamName));
+        new Querydsl(em, new PathBuilder<>(Team.class, team.getMetadata())).applyPagination(pageable, query);
+        List<TeamWithMembersDto> teams = query
+                .orderBy(team.id.asc())
+                .fetch();
+
+        if (!teams.isEmpty()) {
+            Map<Long, TeamWithMembersDto> byId = new LinkedHashMap<>();
+            teams.forEach(dto -> byId.put(dto.getTeamId(), dto));
+
+            //member.team.id는 회원 테이블의 team_id 컬럼이라 팀을 조인하지 않음
+            List<TeamMemberDto> members = queryFactory
+                    .select(TeamMemberDtoMapper.projection(member.id, member.username, member.age, member.team.id))
+                    .from(member)
+                    .where(member.team.id.in(byId.keySet()))
+                    .orderBy(member.id.asc())
+                    .fetch();
+            members.forEach(dto -> byId.get(dto.getTeamId()).getMembers().add(dto));
+        }
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(team.count())
+                .from(team)
+                .where(teamNameEq(teamName));
+        return PageableExecutionUtils.getPage(teams, pageable, countQuery::fetchOne);
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return isEmpty(teamName) ? null : team.name.eq(teamName);
+    }
+}
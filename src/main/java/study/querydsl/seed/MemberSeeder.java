@@ -0,0 +1,167 @@
+package study.querydsl.seed;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.config.SeedProperties;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 대량 샘플 데이터 생성
+ * 회원을 스레드 수만큼 구간으로 나눠 동시에 넣고, 각 스레드는 flushSize 행마다 트랜잭션을 끊어서
+ * 영속성 컨텍스트가 커지지 않게 함 (커밋할때 flush, 끝나면 EntityManager가 비워짐)
+ *
+ * insert는 hibernate.jdbc.batch_size + order_inserts로 배치로 나가고
+ * id는 시퀀스 pooled-lo 옵티마이저로 increment_size만큼 한 번에 받아와서 행마다 시퀀스 조회를 하지 않음
+ */
+@Slf4j
+@Component
+public class MemberSeeder {
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final SeedProperties seedProperties;
+
+    public MemberSeeder(EntityManager em, PlatformTransactionManager transactionManager,
+                        SeedProperties seedProperties) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.seedProperties = seedProperties;
+    }
+
+    public SeedReport seed() {
+        return seed(seedProperties);
+    }
+
+    public SeedReport seed(SeedProperties properties) {
+        long start = System.nanoTime();
+
+        List<Long> teamIds = transactionTemplate.execute(status -> insertTeams(properties.getTeams()));
+
+        int threads = Math.max(1, Math.min(properties.getThreads(), properties.getMembers()));
+        int perThread = (properties.getMembers() + threads - 1) / threads;
+        AtomicInteger workerNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "member-seeder-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int from = 0; from < properties.getMembers(); from += perThread) {
+                int to = Math.min(from + perThread, properties.getMembers());
+                int rangeStart = from;
+                results.add(workers.submit(() -> insertMembers(rangeStart, to, teamIds, properties)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("샘플 데이터 생성 중 인터럽트됨", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("샘플 데이터 생성 실패", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        SeedReport report = new SeedReport(properties.getMembers(), teamIds, System.nanoTime() - start);
+        log.info("seeded {} members, {} teams in {}ms ({} rows/s, {} threads)",
+                report.getMembers(), report.getTeams(), report.getElapsedMillis(),
+                Math.round(report.getRowsPerSecond()), threads);
+        return report;
+    }
+
+    private List<Long> insertTeams(int count) {
+        List<Long> teamIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Team team = new Team(teamName(i, count));
+            em.persist(team);
+            teamIds.add(team.getId());
+        }
+        return teamIds;
+    }
+
+    /** 팀이 26개 이하면 teamA, teamB ... 예전 샘플 데이터와 같은 이름 */
+    private static String teamName(int index, int count) {
+        return count <= 26 ? "team" + (char) ('A' + index) : "team" + index;
+    }
+
+    private void insertMembers(int from, int to, List<Long> teamIds, SeedProperties properties) {
+        int window = Math.max(1, properties.getFlushSize());
+        for (int windowStart = from; windowStart < to; windowStart += window) {
+            int windowEnd = Math.min(windowStart + window, to);
+            int start = windowStart;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = start; i < windowEnd; i++) {
+                    Member member = new Member("member" + i, age(i, properties));
+                    //changeTeam을 쓰면 팀 프록시를 초기화하므로 연관관계 주인 쪽만 세팅, 프록시라 select 없음
+                    if (!teamIds.isEmpty()) {
+                        member.setTeam(em.getReference(Team.class, teamIds.get(i % teamIds.size())));
+                    }
+                    em.persist(member);
+                }
+                em.flush();
+                em.clear();
+            });
+        }
+    }
+
+    private static int age(int index, SeedProperties properties) {
+        int min = properties.getAgeMin();
+        int max = Math.max(min, properties.getAgeMax());
+        switch (properties.getAgeDistribution()) {
+            case UNIFORM:
+                return ThreadLocalRandom.current().nextInt(min, max + 1);
+            case NORMAL:
+                double mean = (min + max) / 2.0;
+                double sd = Math.max(1, (max - min) / 6.0);
+                long age = Math.round(mean + ThreadLocalRandom.current().nextGaussian() * sd);
+                return (int) Math.max(min, Math.min(max, age));
+            default:
+                return index;
+        }
+    }
+
+    @Getter
+    public static class SeedReport {
+
+        private final int members;
+        private final int teams;
+        private final long elapsedNanos;
+
+        /** 이번에 만든 팀 id, 회원은 모두 이 팀들에 들어감 */
+        private final List<Long> teamIds;
+
+        private SeedReport(int members, List<Long> teamIds, long elapsedNanos) {
+            this.members = members;
+            this.teams = teamIds.size();
+            this.elapsedNanos = elapsedNanos;
+            this.teamIds = teamIds;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        public double getRowsPerSecond() {
+            return (members + teams) / Math.max(elapsedNanos / 1_000_000_000.0, 1e-9);
+        }
+    }
+}
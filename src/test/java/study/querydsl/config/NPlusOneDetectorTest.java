@@ -0,0 +1,82 @@
+package study.querydsl.config;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.support.NPlusOneExtension;
+import study.querydsl.support.NPlusOneRecording;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * findAll_Querydsl로 회원을 읽고 팀 이름을 꺼내면 팀마다 select가 한 번씩 나감(QuerydslBasicTest.fetchJoinNo)
+ * 팀 4개, threshold 3
+ */
+@SpringBootTest
+@Transactional
+@ExtendWith(NPlusOneExtension.class)
+class NPlusOneDetectorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @BeforeEach
+    public void before() {
+        for (int i = 0; i < 4; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("member" + i, 10 + i, team));
+            em.persist(new Member("member" + i + "b", 20 + i, team));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void lazyToOne(NPlusOneRecording recording) {
+        List<Member> members = memberJpaRepository.findAll_Querydsl();
+        members.forEach(m -> m.getTeam().getName());
+
+        NPlusOneDetector.Finding finding = recording.assertDetected("Member.team");
+        assertThat(finding.getOrigin()).isEqualTo("MemberJpaRepository.findAll_Querydsl");
+        //같은 팀 회원은 이미 초기화된 프록시를 같이 씀, 팀마다 한 번
+        assertThat(finding.getCount()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    public void lazyCollection(NPlusOneRecording recording) {
+        List<Team> teams = queryFactory.selectFrom(team).fetch();
+        teams.forEach(t -> t.getMembers().size());
+
+        assertThat(recording.assertDetected("Team.members").getOrigin()).isEqualTo(NPlusOneDetector.UNKNOWN_ORIGIN);
+    }
+
+    @Test
+    public void fetchJoin(NPlusOneRecording recording) {
+        List<Member> members = queryFactory
+                .selectFrom(member)
+                .join(member.team, team).fetchJoin()
+                .fetch();
+        members.forEach(m -> m.getTeam().getName());
+
+        recording.assertNone();
+    }
+}
@@ -0,0 +1,88 @@
+package study.querydsl.config;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.support.NPlusOneExtension;
+import study.querydsl.support.NPlusOneRecording;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 트랜잭션 없이 OSIV처럼 스레드에 묶인 EntityManager로 지연 로딩해도 기록되는지
+ * 트랜잭션이 없으므로 데이터를 커밋하고 끝나고 지움
+ */
+@SpringBootTest
+@ExtendWith(NPlusOneExtension.class)
+class NPlusOneWithoutTransactionTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    EntityManager boundEm;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 4; i++) {
+                Team osivTeam = new Team("osivTeam" + i);
+                em.persist(osivTeam);
+                em.persist(new Member("osivMember" + i, 10 + i, osivTeam));
+            }
+        });
+        //커밋하면서 2차 캐시(team 영역)에 들어간 팀은 select 없이 나오므로 비움
+        emf.getCache().evictAll();
+
+        boundEm = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(boundEm));
+    }
+
+    @AfterEach
+    public void after() {
+        TransactionSynchronizationManager.unbindResource(emf);
+        boundEm.close();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(member).where(member.username.startsWith("osivMember")).execute();
+            queryFactory.delete(team).where(team.name.startsWith("osivTeam")).execute();
+        });
+    }
+
+    @Test
+    public void lazyLoadOutsideTransaction(NPlusOneRecording recording) {
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+
+        List<Member> members = memberJpaRepository.findAll_Querydsl();
+        members.forEach(m -> m.getTeam().getName());
+
+        NPlusOneDetector.Finding finding = recording.assertDetected("Member.team");
+        assertThat(finding.getOrigin()).isEqualTo("MemberJpaRepository.findAll_Querydsl");
+        assertThat(finding.getCount()).isGreaterThanOrEqualTo(4);
+    }
+}
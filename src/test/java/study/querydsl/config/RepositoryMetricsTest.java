@@ -0,0 +1,133 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 리포지토리 메트릭, 레지스트리는 같은 컨텍스트를 쓰는 다른 테스트와 공유되므로 호출 전후 차이로 확인
+ */
+@SpringBootTest
+@Transactional
+class RepositoryMetricsTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @BeforeEach
+    public void before() {
+        //rows 메트릭은 조회된 행 수 그대로 쌓이므로, 커밋되어 남아있는 teamA 회원 등이 결과에 끼지 않을 이름으로 검색
+        Team team = new Team("metricsTeam");
+        em.persist(team);
+        em.persist(new Member("metricsMember1", 10, team));
+        em.persist(new Member("metricsMember2", 20, team));
+        em.persist(new Member("metricsMember3", 30, team));
+        //insert가 측정하는 호출의 SQL 수에 섞이지 않게
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void searchByConditionShape() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("metricsTeam");
+        condition.setAgeGoe(15);
+
+        long calls = count("MemberRepository.search", "teamName+ageGoe");
+        double rows = total(RepositoryMetrics.ROWS, "MemberRepository.search", "teamName+ageGoe");
+        double statements = total(RepositoryMetrics.STATEMENTS, "MemberRepository.search", "teamName+ageGoe");
+
+        memberRepository.search(condition);
+
+        assertThat(count("MemberRepository.search", "teamName+ageGoe")).isEqualTo(calls + 1);
+        assertThat(total(RepositoryMetrics.ROWS, "MemberRepository.search", "teamName+ageGoe")).isEqualTo(rows + 2);
+        assertThat(total(RepositoryMetrics.STATEMENTS, "MemberRepository.search", "teamName+ageGoe"))
+                .isEqualTo(statements + 1);
+        //안쪽 MemberRepositoryImpl.search는 따로 남기지 않음
+        assertThat(meterRegistry.find(RepositoryMetrics.LATENCY).tag("method", "MemberRepositoryImpl.search").timer())
+                .isNull();
+    }
+
+    @Test
+    public void predicateShape() {
+        String shape = QueryShape.of(member.age.goe(15).and(member.username.eq("metricsMember3")));
+        assertThat(shape).isEqualTo("and(goe(member.age,?),eq(member.username,?))");
+
+        long calls = count("MemberRepository.findAll", shape);
+
+        memberRepository.findAll(member.age.goe(25).and(member.username.eq("metricsMember3")));
+
+        assertThat(count("MemberRepository.findAll", shape)).isEqualTo(calls + 1);
+    }
+
+    @Test
+    public void jpaRepositoryWithoutCondition() {
+        long calls = count("MemberJpaRepository.findByUsername", QueryShape.NONE);
+        double rows = total(RepositoryMetrics.ROWS, "MemberJpaRepository.findByUsername", QueryShape.NONE);
+
+        memberJpaRepository.findByUsername("metricsMember1");
+
+        assertThat(count("MemberJpaRepository.findByUsername", QueryShape.NONE)).isEqualTo(calls + 1);
+        assertThat(total(RepositoryMetrics.ROWS, "MemberJpaRepository.findByUsername", QueryShape.NONE))
+                .isEqualTo(rows + 1);
+    }
+
+    //모양 수 상한은 메서드마다 따로
+    @Test
+    public void shapeLimitPerMethod() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MetricsConfig.ShapeLimitFilter(2));
+
+        for (String shape : new String[]{"a", "b", "c"}) {
+            Timer.builder(RepositoryMetrics.LATENCY).tags("method", "first", "shape", shape).register(registry);
+            DistributionSummary.builder(RepositoryMetrics.ROWS).tags("method", "first", "shape", shape)
+                    .register(registry);
+        }
+        Timer.builder(RepositoryMetrics.LATENCY).tags("method", "second", "shape", "c").register(registry);
+
+        assertThat(registry.find(RepositoryMetrics.LATENCY).tag("method", "first").timers()).hasSize(2);
+        assertThat(registry.find(RepositoryMetrics.ROWS).tag("method", "first").summaries()).hasSize(2);
+        assertThat(registry.find(RepositoryMetrics.LATENCY).tags("method", "first", "shape", "c").timer()).isNull();
+        assertThat(registry.find(RepositoryMetrics.LATENCY).tags("method", "second", "shape", "c").timer())
+                .isNotNull();
+    }
+
+    private long count(String method, String shape) {
+        Timer timer = meterRegistry.find(RepositoryMetrics.LATENCY)
+                .tags("method", method, "shape", shape, "outcome", "success")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double total(String name, String method, String shape) {
+        DistributionSummary summary = meterRegistry.find(name)
+                .tags("method", method, "shape", shape)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+}
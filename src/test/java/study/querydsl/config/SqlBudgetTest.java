@@ -0,0 +1,79 @@
+package study.querydsl.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 요청별 SQL 수 태그와 상한, v1은 SQL 하나도 허용하지 않게 해서 fail 모드 확인
+ * 하이버네이트 Statistics, 히카리 풀 메트릭도 같이 확인
+ */
+@SpringBootTest(properties = {
+        "querydsl.sql-budget.mode=fail",
+        "querydsl.sql-budget.limits[MemberController.searchMemberV1]=0"})
+@AutoConfigureMockMvc
+class SqlBudgetTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void statementsTag() throws Exception {
+        mockMvc.perform(get("/v2/members").param("teamName", "teamA"))
+                .andExpect(status().isOk());
+
+        Timer timer = meterRegistry.find("http.server.requests").tag("uri", "/v2/members").timer();
+        assertThat(timer).isNotNull();
+        //컨텐츠 쿼리 + (필요하면) 카운트 쿼리
+        assertThat(timer.getId().getTag("sql.statements")).isIn("1", "2");
+    }
+
+    @Test
+    public void failWhenOverBudget() throws Exception {
+        mockMvc.perform(get("/v1/members"))
+                .andExpect(status().isInternalServerError())
+                //리포지토리 예외 변환에 감싸이지 않고 그대로
+                .andExpect(result -> assertThat(result.getResolvedException())
+                        .isInstanceOf(SqlBudgetExceededException.class));
+    }
+
+    //앞의 리스너가 예외를 던져도 뒤의 리스너는 SQL을 받음
+    @Test
+    public void inspectorNotifiesAllListeners() {
+        List<String> received = new ArrayList<>();
+        SqlStatementInspector inspector = new SqlStatementInspector(List.of(
+                sql -> {
+                    throw new SqlBudgetExceededException("test", 1, 0);
+                },
+                received::add));
+
+        assertThatThrownBy(() -> inspector.inspect("select 1"))
+                .isInstanceOf(SqlBudgetExceededException.class);
+        assertThat(received).containsExactly("select 1");
+    }
+
+    @Test
+    public void hibernateAndPoolMetrics() throws Exception {
+        mockMvc.perform(get("/v2/members")).andExpect(status().isOk());
+
+        assertThat(meterRegistry.find("hibernate.query.executions").functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.flushes").functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").timer()).isNotNull();
+    }
+}
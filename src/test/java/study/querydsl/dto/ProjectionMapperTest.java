@@ -0,0 +1,36 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.types.FactoryExpression;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 애노테이션 프로세서가 만든 매퍼가 Q타입 생성자(ConstructorExpression)와 같은 결과를 내는지
+ */
+class ProjectionMapperTest {
+
+    @Test
+    public void sameAsQueryProjection() {
+        Object[] row = {1L, "member1", 10, 2L, "teamA"};
+
+        FactoryExpression<MemberTeamDto> generated =
+                MemberTeamDtoMapper.projection(member.id, member.username, member.age, team.id, team.name);
+        QMemberTeamDto constructor = new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name);
+
+        assertThat(generated.getArgs()).isEqualTo(constructor.getArgs());
+        assertThat(generated.getType()).isEqualTo(MemberTeamDto.class);
+        assertThat(generated.newInstance(row)).isEqualTo(constructor.newInstance(row));
+    }
+
+    //기본 타입 파라미터에 null이 오면(left join 등) 기본값
+    @Test
+    public void primitiveNull() {
+        MemberDto dto = MemberDtoMapper.projection(member.username, member.age).newInstance("member1", null);
+
+        assertThat(dto.getUsername()).isEqualTo("member1");
+        assertThat(dto.getAge()).isZero();
+    }
+}
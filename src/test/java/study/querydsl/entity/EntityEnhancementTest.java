@@ -0,0 +1,39 @@
+package study.querydsl.entity;
+
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 빌드할때 하이버네이트 바이트코드 향상이 적용됐는지 확인
+ * -PhibernateEnhance=false 로 빌드하면 건너뜀
+ */
+class EntityEnhancementTest {
+
+    @Test
+    public void entitiesAreEnhanced() {
+        assumeTrue(Boolean.parseBoolean(System.getProperty("hibernate.enhance", "true")));
+
+        for (Class<?> entity : new Class<?>[]{Member.class, Team.class, Hello.class}) {
+            assertThat(SelfDirtinessTracker.class).isAssignableFrom(entity);
+            assertThat(PersistentAttributeInterceptable.class).isAssignableFrom(entity);
+        }
+    }
+
+    //setter로 바꾼 필드만 기록됨
+    @Test
+    public void dirtyTracking() {
+        assumeTrue(Boolean.parseBoolean(System.getProperty("hibernate.enhance", "true")));
+
+        Member member = new Member("member1", 10);
+        SelfDirtinessTracker tracker = (SelfDirtinessTracker) (Object) member;
+        tracker.$$_hibernate_clearDirtyAttributes();
+
+        member.setAge(20);
+
+        assertThat(tracker.$$_hibernate_getDirtyAttributes()).containsExactly("age");
+    }
+}
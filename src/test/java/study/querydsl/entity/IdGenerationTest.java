@@ -0,0 +1,63 @@
+package study.querydsl.entity;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** 엔티티마다 전용 시퀀스 + pooled-lo, PooledLoSequenceGenerator */
+@SpringBootTest
+@Transactional
+class IdGenerationTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Test
+    public void sequencePerEntity() {
+        assertThat(generator(Member.class).getDatabaseStructure().getName()).isEqualTo("member_seq");
+        assertThat(generator(Team.class).getDatabaseStructure().getName()).isEqualTo("team_seq");
+        assertThat(generator(Hello.class).getDatabaseStructure().getName()).isEqualTo("hello_seq");
+
+        for (Class<?> entity : new Class<?>[]{Member.class, Team.class, Hello.class}) {
+            assertThat(generator(entity).getOptimizer()).isInstanceOf(PooledLoOptimizer.class);
+            assertThat(generator(entity).getOptimizer().getIncrementSize())
+                    .isEqualTo(PooledLoSequenceGenerator.DEFAULT_INCREMENT_SIZE);
+        }
+    }
+
+    //한 번 받아온 범위 안에서는 시퀀스 조회 없이 연속된 id
+    @Test
+    public void consecutiveIds() {
+        Member member1 = new Member("member1", 10);
+        Member member2 = new Member("member2", 20);
+        Member member3 = new Member("member3", 30);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+
+        //범위는 1~50, 51~100 ..., 끝에 걸려서 다음 범위로 넘어가면 건너뜀
+        long first = member1.getId();
+        assumeTrue((first - 1) % PooledLoSequenceGenerator.DEFAULT_INCREMENT_SIZE
+                <= PooledLoSequenceGenerator.DEFAULT_INCREMENT_SIZE - 3);
+        assertThat(member2.getId()).isEqualTo(first + 1);
+        assertThat(member3.getId()).isEqualTo(first + 2);
+    }
+
+    private SequenceStyleGenerator generator(Class<?> entity) {
+        return (SequenceStyleGenerator) emf.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel().entityPersister(entity).getIdentifierGenerator();
+    }
+}
@@ -2,6 +2,9 @@ package study.querydsl.entity;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Commit;
@@ -52,4 +55,56 @@ public class MemberTest {
             System.out.println("-> member.team=" + member.getTeam());
         }
     }
-}
\ No newline at end of file
+
+    //팀 변경이 팀의 회원 컬렉션을 로딩하지 않는지 실행된 SQL 수로 확인
+    @Test
+    public void changeTeamWithoutLoadingMembers() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i, teamA));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Member member = em.createQuery("select m from Member m where m.username = :username", Member.class)
+                .setParameter("username", "member0")
+                .getSingleResult();
+        //프록시만, select 안나감
+        Team target = em.getReference(Team.class, teamB.getId());
+
+        member.changeTeam(target);
+        em.flush();
+
+        //회원 조회 1번 + update 1번, 팀이나 팀 회원 컬렉션 조회 없음
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertFalse(Hibernate.isInitialized(member.getTeam()));
+        em.clear();
+
+        assertEquals(teamB.getId(), em.find(Member.class, member.getId()).getTeam().getId());
+    }
+
+    //이미 로딩된 컬렉션은 양쪽 다 맞춰줌
+    @Test
+    public void changeTeamKeepsLoadedCollections() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        em.persist(member1);
+        em.persist(member2);
+
+        member1.changeTeam(teamB);
+
+        assertEquals(List.of(member2), teamA.getMembers());
+        assertEquals(List.of(member1), teamB.getMembers());
+    }
+}
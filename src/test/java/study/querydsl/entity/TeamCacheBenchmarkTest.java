@@ -0,0 +1,130 @@
+package study.querydsl.entity;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.repository.MemberJpaRepository;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 팀 2차 캐시 / 쿼리 캐시 켠 것과 끈 것 비교, ./gradlew benchmarkTest 로 실행
+ * 설정을 바꾸지 않고 세션의 캐시 조회 모드(USE / BYPASS)로 같은 작업을 돌려서 히트율과 시간을 봄
+ * 작업: 회원을 조회하고 지연로딩으로 팀 이름을 읽음, 팀 이름 조건 검색
+ *
+ * 데이터를 같은 쓰기 트랜잭션에서 넣으면 커밋 전까지 member, team 테이블이 바뀐 것으로 표시돼서
+ * 쿼리 캐시가 항상 오래된 것으로 취급됨, 그래서 데이터는 커밋해두고 라운드마다 읽기 전용 트랜잭션에서 돌리고 끝나면 지움
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TeamCacheBenchmarkTest {
+
+    private static final int TEAMS = 50;
+    private static final int MEMBERS = 5_000;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            Team[] teams = new Team[TEAMS];
+            for (int i = 0; i < TEAMS; i++) {
+                teams[i] = new Team("cacheBenchTeam" + i);
+                em.persist(teams[i]);
+            }
+            for (int i = 0; i < MEMBERS; i++) {
+                Member member = new Member("cacheBenchMember" + i, i % 100);
+                member.setTeam(teams[i % TEAMS]);
+                em.persist(member);
+            }
+        });
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.setReadOnly(false);
+        transactionTemplate.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(QMember.member).where(QMember.member.username.startsWith("cacheBenchMember")).execute();
+            queryFactory.delete(QTeam.team).where(QTeam.team.name.startsWith("cacheBenchTeam")).execute();
+        });
+    }
+
+    @Test
+    public void cacheOnAndOff() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        //캐시를 한 번 채워두고 시작
+        run(CacheRetrieveMode.USE);
+
+        statistics.clear();
+        long bypass = run(CacheRetrieveMode.BYPASS);
+        long bypassLoads = statistics.getEntityLoadCount();
+        long bypassQueries = statistics.getQueryExecutionCount();
+
+        statistics.clear();
+        long use = run(CacheRetrieveMode.USE);
+
+        System.out.printf("cache off: %dms, entity loads=%d, queries=%d%n",
+                bypass / 1_000_000, bypassLoads, bypassQueries);
+        System.out.printf("cache on: %dms, 2nd level hit=%d miss=%d, query cache hit=%d miss=%d%n",
+                use / 1_000_000,
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(0);
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(0);
+    }
+
+    private long run(CacheRetrieveMode mode) {
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            int age = round;
+            transactionTemplate.executeWithoutResult(status -> {
+                em.setProperty("javax.persistence.cache.retrieveMode", mode);
+
+                //회원을 읽고 팀을 지연로딩, 캐시가 켜져있으면 팀은 db에 가지 않음
+                List<Member> members = em.createQuery("select m from Member m where m.age = :age", Member.class)
+                        .setParameter("age", age)
+                        .getResultList();
+                for (Member member : members) {
+                    member.getTeam().getName();
+                }
+
+                MemberSearchCondition condition = new MemberSearchCondition();
+                condition.setTeamName("cacheBenchTeam" + age % TEAMS);
+                memberJpaRepository.search(condition);
+            });
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,91 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import study.querydsl.config.SearchProperties;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** 컨텐츠/카운트 동시 실행, db 없이 쿼리 자리에 람다를 넣어서 확인 */
+class ConcurrentPageExecutorTest {
+
+    SimpleMeterRegistry meterRegistry;
+    ConcurrentPageExecutor executor;
+
+    @BeforeEach
+    public void before() {
+        SearchProperties searchProperties = new SearchProperties();
+        searchProperties.getParallelCount().setEnabled(true);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ConcurrentPageExecutor(searchProperties, transactionManager, meterRegistry);
+    }
+
+    @AfterEach
+    public void after() {
+        executor.destroy();
+    }
+
+    //카운트는 다른 스레드에서 컨텐츠와 동시에 돌아야함
+    @Test
+    public void countRunsConcurrently() {
+        CountDownLatch countStarted = new CountDownLatch(1);
+        AtomicReference<String> countThread = new AtomicReference<>();
+
+        Page<String> page = executor.getPage(() -> {
+            //카운트가 시작되기 전까지 컨텐츠 쿼리가 끝나지 않게
+            await(countStarted);
+            return Arrays.asList("a", "b");
+        }, PageRequest.of(1, 2), () -> {
+            countThread.set(Thread.currentThread().getName());
+            countStarted.countDown();
+            return 10;
+        });
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).containsExactly("a", "b");
+        assertThat(countThread.get()).startsWith("search-count-");
+        assertThat(meterRegistry.get("querydsl.search.count.parallel.saved").timer().count()).isEqualTo(1);
+    }
+
+    //첫 페이지가 덜 찼으면 컨텐츠만으로 개수가 정해지므로 카운트는 취소
+    @Test
+    public void countCancelledWhenNotNeeded() {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Page<String> page = executor.getPage(() -> List.of("a"), PageRequest.of(0, 2), () -> {
+            await(release);
+            return 99;
+        });
+        release.countDown();
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(meterRegistry.get("querydsl.search.count.parallel.cancelled").counter().count()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.NPlusOneExtension;
+import study.querydsl.support.NPlusOneRecording;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * FetchPlan으로 연관관계를 같이 읽으면 꺼낼때 select가 더 나가지 않음(NPlusOneExtension)
+ * 팀 4개, 팀마다 회원 2명
+ */
+@SpringBootTest
+@Transactional
+@ExtendWith(NPlusOneExtension.class)
+class FetchPlanTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    /** 이 테스트가 넣은 데이터만 */
+    Predicate ourMembers = member.username.startsWith("fetchMember");
+    Predicate ourTeams = team.name.startsWith("fetchTeam");
+
+    @BeforeEach
+    public void before() {
+        for (int i = 0; i < 4; i++) {
+            Team t = new Team("fetchTeam" + i);
+            em.persist(t);
+            em.persist(new Member("fetchMember" + i + "a", 10 + i, t));
+            em.persist(new Member("fetchMember" + i + "b", 20 + i, t));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void memberTeam(NPlusOneRecording recording) {
+        List<Member> byJpaRepository = memberJpaRepository.findAll_Querydsl(FetchPlan.MEMBER_TEAM);
+        List<Member> byUsername = memberJpaRepository.findByUsername_Querydsl("fetchMember0a", FetchPlan.MEMBER_TEAM);
+        List<Member> byPredicate = memberRepository.findAll(ourMembers, FetchPlan.MEMBER_TEAM);
+
+        assertThat(byPredicate).hasSize(8);
+        assertThat(byUsername).hasSize(1);
+        assertTeamsLoaded(byJpaRepository);
+        assertTeamsLoaded(byUsername);
+        assertTeamsLoaded(byPredicate);
+        byPredicate.forEach(m -> m.getTeam().getName());
+
+        recording.assertNone();
+    }
+
+    //다대일은 페이징이어도 fetch join, 한 페이지 + 카운트
+    @Test
+    public void memberTeamPage(NPlusOneRecording recording) {
+        Page<Member> page = memberRepository.findAll(ourMembers,
+                PageRequest.of(1, 3, Sort.by("username")), FetchPlan.MEMBER_TEAM);
+
+        assertThat(page.getTotalElements()).isEqualTo(8);
+        assertThat(page.getContent()).extracting("username")
+                .containsExactly("fetchMember1b", "fetchMember2a", "fetchMember2b");
+        assertTeamsLoaded(page.getContent());
+        recording.assertNone();
+    }
+
+    @Test
+    public void teamMembers(NPlusOneRecording recording) {
+        List<Team> teams = teamRepository.findAll(ourTeams, FetchPlan.TEAM_MEMBERS);
+
+        //컬렉션 fetch join이어도 팀이 중복되지 않음
+        assertThat(teams).hasSize(4);
+        assertMembersLoaded(teams);
+        recording.assertNone();
+    }
+
+    //컬렉션은 페이지를 먼저 읽고 in 쿼리로 채움, 메모리 페이징이면 fail_on_pagination_over_collection_fetch로 예외
+    @Test
+    public void teamMembersPage(NPlusOneRecording recording) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<Team> page = teamRepository.findAll(ourTeams,
+                PageRequest.of(0, 2, Sort.by("name")), FetchPlan.TEAM_MEMBERS);
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting("name").containsExactly("fetchTeam0", "fetchTeam1");
+        assertMembersLoaded(page.getContent());
+        //팀 페이지, 회원 in 쿼리, 카운트
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        recording.assertNone();
+    }
+
+    @Test
+    public void planForOtherEntity() {
+        assertThatThrownBy(() -> memberRepository.findAll(ourMembers, FetchPlan.TEAM_MEMBERS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertTeamsLoaded(List<Member> members) {
+        PersistenceUnitUtil util = emf.getPersistenceUnitUtil();
+        assertThat(members).allMatch(m -> util.isLoaded(m.getTeam()));
+    }
+
+    private void assertMembersLoaded(List<Team> teams) {
+        PersistenceUnitUtil util = emf.getPersistenceUnitUtil();
+        assertThat(teams).allMatch(t -> util.isLoaded(t, "members"));
+        assertThat(teams).allMatch(t -> t.getMembers().size() == 2);
+    }
+}
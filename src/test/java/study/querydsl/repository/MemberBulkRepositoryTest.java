@@ -0,0 +1,131 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 범위마다 커밋하므로 @Transactional 롤백을 쓸 수 없음, 끝나고 직접 지움
+ * 다른 테스트가 커밋해 둔 회원을 건드리지 않도록 조건, 검증, 정리 모두 bulkTeam 회원으로 한정
+ */
+@SpringBootTest
+class MemberBulkRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberBulkRepository memberBulkRepository;
+
+    Long bulkTeamId;
+
+    @BeforeEach
+    public void before() {
+        bulkTeamId = transactionTemplate.execute(status -> {
+            Team bulkTeam = new Team("bulkTeam");
+            em.persist(bulkTeam);
+            //나이 0 ~ 24
+            for (int i = 0; i < 25; i++) {
+                em.persist(new Member("bulkMember" + i, i, bulkTeam));
+            }
+            return bulkTeam.getId();
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(member).where(inBulkTeam()).execute();
+            queryFactory.delete(team).where(team.id.eq(bulkTeamId)).execute();
+        });
+    }
+
+    @Test
+    public void updateInChunks() {
+        List<MemberBulkRepository.Progress> progress = new ArrayList<>();
+
+        MemberBulkRepository.BulkResult result = memberBulkRepository.update(inBulkTeam().and(member.age.lt(20)),
+                update -> update.set(member.username, "bulkGuest"), 10, progress::add);
+
+        //범위를 조건에 맞는 회원 수로 자르므로 id가 건너뛰어도 10명씩 2번
+        assertThat(result.getAffectedRows()).isEqualTo(20);
+        assertThat(result.getChunks()).isEqualTo(progress.size()).isEqualTo(2);
+        assertThat(progress).extracting("chunkRows").containsExactly(10L, 10L);
+        assertThat(progress.get(progress.size() - 1).getTotalRows()).isEqualTo(20);
+        assertThat(progress.get(progress.size() - 1).getRatio()).isEqualTo(1.0);
+
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        assertThat(queryFactory.selectFrom(member).where(inBulkTeam(), member.username.eq("bulkGuest")).fetch())
+                .extracting("age").allMatch(age -> (int) age < 20).hasSize(20);
+    }
+
+    //OSIV처럼 트랜잭션 없이 묶인 EntityManager에 올라온 회원은 detach 되어야함
+    @Test
+    public void deleteDetachesLoadedMembers() {
+        EntityManager boundEm = emf.createEntityManager();
+        TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(boundEm));
+        try {
+            Member loaded = em.createQuery("select m from Member m where m.username = :username", Member.class)
+                    .setParameter("username", "bulkMember5")
+                    .getSingleResult();
+            Member untouched = em.createQuery("select m from Member m where m.username = :username", Member.class)
+                    .setParameter("username", "bulkMember24")
+                    .getSingleResult();
+            assertThat(boundEm.contains(loaded)).isTrue();
+
+            MemberBulkRepository.BulkResult result =
+                    memberBulkRepository.delete(inBulkTeam().and(member.age.loe(10)), 4, null);
+
+            //4 + 4 + 3
+            assertThat(result.getAffectedRows()).isEqualTo(11);
+            assertThat(result.getChunks()).isEqualTo(3);
+            assertThat(boundEm.contains(loaded)).isFalse();
+            assertThat(boundEm.contains(untouched)).isTrue();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(emf);
+            boundEm.close();
+        }
+
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        assertThat(queryFactory.select(member.count()).from(member).where(inBulkTeam()).fetchOne()).isEqualTo(14);
+    }
+
+    @Test
+    public void rejectInsideTransaction() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                memberBulkRepository.delete(inBulkTeam().and(member.age.lt(5)), null)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    //벌크 update/delete에서도 조인 없이 team_id 컬럼으로 나감
+    private BooleanExpression inBulkTeam() {
+        return member.team.id.eq(bulkTeamId);
+    }
+}
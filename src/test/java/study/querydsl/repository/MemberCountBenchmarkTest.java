@@ -0,0 +1,113 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 카운트 쿼리 조인 제거 비교, ./gradlew benchmarkTest 로 실행
+ * 회원 100만명에서 팀 조건 없이 나이로만 검색할 때
+ * 예전처럼 left join team을 붙인 카운트와 조인을 뺀 카운트(searchPageComplex)를 비교
+ * org.hibernate.SQL 로그에서 searchPageComplex의 카운트 쿼리에 team 조인이 없는지 확인
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class MemberCountBenchmarkTest {
+
+    private static final int MEMBERS = 1_000_000;
+    private static final int BATCH = 5_000;
+    /** 시퀀스로 만들어지는 id와 겹치지 않게 */
+    private static final long ID_BASE = 100_000_000L;
+    private static final int RUNS = 7;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.flush();
+
+        //em.persist로 100만건은 너무 느려서 JDBC 배치로 바로 넣음, 같은 트랜잭션이라 테스트 끝나면 롤백
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int i = 0; i < MEMBERS; i++) {
+            Long teamId = i % 2 == 0 ? teamA.getId() : teamB.getId();
+            rows.add(new Object[]{ID_BASE + i, "member" + i, i % 100, teamId});
+            if (rows.size() == BATCH) {
+                insert(rows);
+            }
+        }
+        insert(rows);
+        em.clear();
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    @Test
+    public void countWithoutTeamJoin() {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(60);
+
+        long leftJoinCount = median(() -> queryFactory
+                .select(member.count())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.age.goe(20), member.age.loe(60))
+                .fetchOne());
+
+        //두번째 페이지라 카운트 쿼리가 생략되지 않음
+        long pruned = median(() -> memberRepository.searchPageComplex(condition, PageRequest.of(1, 20)));
+
+        System.out.printf("count with left join team = %dms%n", leftJoinCount / 1_000_000);
+        System.out.printf("searchPageComplex (count without join) = %dms%n", pruned / 1_000_000);
+
+        Page<MemberTeamDto> page = memberRepository.searchPageComplex(condition, PageRequest.of(1, 20));
+        assertThat(page.getTotalElements()).isEqualTo(MEMBERS / 100 * 41);
+    }
+
+    private long median(Supplier<?> call) {
+        long[] elapsed = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            call.get();
+            elapsed[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(elapsed);
+        return elapsed[RUNS / 2];
+    }
+}
@@ -1,6 +1,7 @@
 package study.querydsl.repository;
 
 import org.junit.jupiter.api.Assertions;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -13,6 +14,8 @@ import study.querydsl.entity.Team;
 import javax.persistence.EntityManager;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -91,4 +94,55 @@ class MemberJpaRepositoryTest {
         assertThat(result).extracting("username").containsExactly("member4");
     }
 
-}
\ No newline at end of file
+    //스트리밍 조회도 search와 같은 조건으로 같은 결과가 나와야함
+    @Test
+    public void searchStreamTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(15);
+        condition.setTeamName("teamB");
+
+        List<MemberTeamDto> result;
+        try (Stream<MemberTeamDto> stream = memberJpaRepository.searchStream(condition, 2)) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        assertThat(result).extracting("username").containsExactly("member3", "member4");
+    }
+
+    //읽기 전용으로 조회한 엔티티는 값을 바꿔도 update가 나가지 않음
+    @Test
+    public void readOnlyTest() {
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 20));
+        em.flush();
+        em.clear();
+
+        Session session = em.unwrap(Session.class);
+
+        List<Member> all = memberJpaRepository.findAllReadOnly();
+        List<Member> querydsl = memberJpaRepository.findAll_QuerydslReadOnly();
+        List<Member> byUsername = memberJpaRepository.findByUsername_QuerydslReadOnly("member1");
+
+        assertThat(all).hasSize(2);
+        assertThat(querydsl).hasSize(2);
+        assertThat(byUsername).extracting("username").containsExactly("member1");
+        assertThat(all).allMatch(session::isReadOnly);
+
+        byUsername.get(0).setAge(99);
+        em.flush();
+        em.clear();
+
+        assertThat(memberJpaRepository.findByUsername("member1").get(0).getAge()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,102 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.KeysetSlice;
+import study.querydsl.dto.MemberKeysetSort;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 키셋 페이징 vs offset 페이징 성능 비교, ./gradlew benchmarkTest 로 실행
+ * 20개씩 10,000 페이지가 나오도록 회원을 넣고 1페이지와 10,000페이지 조회 시간을 비교
+ * offset은 건너뛰는 행을 전부 읽고 버리기 때문에 깊은 페이지일수록 느려지고
+ * 키셋은 인덱스에서 바로 시작 위치를 찾으므로 비슷해야함
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class MemberKeysetBenchmarkTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 10_000;
+    private static final int RUNS = 15;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < PAGE_SIZE * PAGES; i++) {
+            em.persist(new Member("member" + i, i % 100, i % 2 == 0 ? teamA : teamB));
+            if (i % 1000 == 999) {
+                em.flush();
+                em.clear();
+                teamA = em.getReference(Team.class, teamA.getId());
+                teamB = em.getReference(Team.class, teamB.getId());
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void firstAndDeepPage() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        //10,000번째 페이지 커서는 9,999페이지까지 넘겨서 얻음, 측정에는 포함 안됨
+        String deepCursor = null;
+        for (int page = 1; page < PAGES; page++) {
+            deepCursor = memberRepository.searchKeyset(condition, MemberKeysetSort.ID, deepCursor, PAGE_SIZE).getNextCursor();
+        }
+        String cursor = deepCursor;
+
+        long keysetFirst = median(() -> memberRepository.searchKeyset(condition, MemberKeysetSort.ID, null, PAGE_SIZE));
+        long keysetDeep = median(() -> memberRepository.searchKeyset(condition, MemberKeysetSort.ID, cursor, PAGE_SIZE));
+        long offsetFirst = median(() -> memberRepository.searchPageComplex(condition, PageRequest.of(0, PAGE_SIZE)));
+        long offsetDeep = median(() -> memberRepository.searchPageComplex(condition, PageRequest.of(PAGES - 1, PAGE_SIZE)));
+
+        System.out.printf("keyset page 1 = %dus, page %d = %dus%n", keysetFirst / 1000, PAGES, keysetDeep / 1000);
+        System.out.printf("offset page 1 = %dus, page %d = %dus%n", offsetFirst / 1000, PAGES, offsetDeep / 1000);
+
+        KeysetSlice<MemberTeamDto> last = memberRepository.searchKeyset(condition, MemberKeysetSort.ID, cursor, PAGE_SIZE);
+        assertThat(last.getContent()).hasSize(PAGE_SIZE);
+        assertThat(last.isHasNext()).isFalse();
+
+        //측정 오차를 감안해도 깊은 페이지가 몇 배씩 느려지면 안됨
+        assertThat(keysetDeep).isLessThan(keysetFirst * 3);
+    }
+
+    private long median(Supplier<?> call) {
+        long[] elapsed = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            call.get();
+            elapsed[i] = System.nanoTime() - start;
+            em.clear();
+        }
+        Arrays.sort(elapsed);
+        return elapsed[RUNS / 2];
+    }
+}
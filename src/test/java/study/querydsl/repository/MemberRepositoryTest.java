@@ -1,18 +1,26 @@
 package study.querydsl.repository;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.CountStrategy;
+import study.querydsl.dto.CountedPage;
+import study.querydsl.dto.KeysetSlice;
+import study.querydsl.dto.MemberKeysetSort;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
 import study.querydsl.entity.Team;
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -104,6 +112,232 @@ class MemberRepositoryTest {
         assertThat(result.getContent()).extracting("username").containsExactly("member1", "member1");
     }
 
+    //카운트 방식별 페이징, 응답에 실제로 개수를 만든 방식이 들어가야함
+    @Test
+    public void searchPageCountStrategy() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        PageRequest pageRequest = PageRequest.of(0, 3);
+
+        CountedPage<MemberTeamDto> exact = memberRepository.searchPage(condition, pageRequest, CountStrategy.EXACT);
+        assertThat(exact.getTotal()).isEqualTo(4);
+        assertThat(exact.getCountStrategy()).isEqualTo(CountStrategy.EXACT);
+        assertThat(exact.isHasNext()).isTrue();
+
+        CountedPage<MemberTeamDto> capped = memberRepository.searchPage(condition, pageRequest, CountStrategy.CAPPED);
+        assertThat(capped.getTotal()).isEqualTo(4);
+        assertThat(capped.isTotalCapped()).isFalse();
+        assertThat(capped.getCountStrategy()).isEqualTo(CountStrategy.CAPPED);
+
+        CountedPage<MemberTeamDto> none = memberRepository.searchPage(condition, pageRequest, CountStrategy.NONE);
+        assertThat(none.getContent()).hasSize(3);
+        assertThat(none.getTotal()).isNull();
+        assertThat(none.isHasNext()).isTrue();
+
+        //조건이 있으면 테이블 통계는 의미가 없으므로 CAPPED로 대신함
+        condition.setTeamName("teamB");
+        CountedPage<MemberTeamDto> estimated = memberRepository.searchPage(condition, PageRequest.of(0, 1), CountStrategy.ESTIMATED);
+        assertThat(estimated.getCountStrategy()).isEqualTo(CountStrategy.CAPPED);
+        assertThat(estimated.getTotal()).isEqualTo(2);
+
+        //마지막 페이지는 컨텐츠로 개수가 정해지므로 카운트 쿼리 없이 EXACT
+        CountedPage<MemberTeamDto> lastPage = memberRepository.searchPage(condition, PageRequest.of(0, 3), CountStrategy.CAPPED);
+        assertThat(lastPage.getCountStrategy()).isEqualTo(CountStrategy.EXACT);
+        assertThat(lastPage.getTotal()).isEqualTo(2);
+    }
+
+    //스프링 데이터 쪽 읽기 전용 조회, 값을 바꿔도 update가 나가지 않음
+    @Test
+    public void readOnlyTest() {
+        em.persist(new Member("member1", 10));
+        em.persist(new Member("member2", 20));
+        em.flush();
+        em.clear();
+
+        Session session = em.unwrap(Session.class);
+
+        List<Member> all = memberRepository.findAllReadOnly();
+        List<Member> byUsername = memberRepository.findReadOnlyByUsername("member1");
+        List<Member> byPredicate = memberRepository.findAllReadOnly(QMember.member.age.goe(20));
+
+        assertThat(all).hasSize(2).allMatch(session::isReadOnly);
+        assertThat(byPredicate).extracting("username").containsExactly("member2");
+
+        byUsername.get(0).setAge(99);
+        byPredicate.get(0).setAge(99);
+        em.flush();
+        em.clear();
+
+        assertThat(memberRepository.findAll()).extracting("age").containsExactlyInAnyOrder(10, 20);
+    }
+
+    //여러 회원 팀 변경, 올라와 있는 회원은 엔티티로, 나머지는 벌크 update 한 번
+    @Test
+    public void reassignTeam() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Member member = new Member("member" + i, i, teamA);
+            em.persist(member);
+            ids.add(member.getId());
+        }
+        em.flush();
+        em.clear();
+
+        Member managed = em.find(Member.class, ids.get(0));
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long updated = memberRepository.reassignTeam(ids, teamB.getId());
+
+        //벌크 update 전 flush로 올라와 있던 회원 update 1번 + 나머지 벌크 update 1번
+        assertThat(updated).isEqualTo(6);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(managed.getTeam().getId()).isEqualTo(teamB.getId());
+
+        em.clear();
+        assertThat(memberRepository.findAllById(ids)).extracting("team.name").containsOnly("teamB");
+    }
+
+    //대상 팀 컬렉션이 이미 로딩되어 있어도 벌크 update로 옮긴 회원까지 보여야함
+    @Test
+    public void reassignTeamToLoadedTeam() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Member member = new Member("member" + i, i, teamA);
+            em.persist(member);
+            ids.add(member.getId());
+        }
+        em.flush();
+        em.clear();
+
+        Team loaded = em.find(Team.class, teamB.getId());
+        assertThat(loaded.getMembers()).isEmpty();
+
+        memberRepository.reassignTeam(ids, teamB.getId());
+
+        assertThat(loaded.getMembers()).extracting("id").containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    //id 먼저 조회 후 DTO 조회, 한 번에 조회한 것과 같은 행이 member.id 순서로 나와야함
+    @Test
+    public void searchPageIdsFirst() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 1; i <= 7; i++) {
+            em.persist(new Member("member" + i, i * 10, i % 2 == 0 ? teamA : teamB));
+        }
+        em.persist(new Member("noTeam", 80));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        CountedPage<MemberTeamDto> page1 = memberRepository.searchPageIdsFirst(condition, PageRequest.of(0, 3), CountStrategy.EXACT);
+        CountedPage<MemberTeamDto> page2 = memberRepository.searchPageIdsFirst(condition, PageRequest.of(1, 3), CountStrategy.EXACT);
+        CountedPage<MemberTeamDto> page3 = memberRepository.searchPageIdsFirst(condition, PageRequest.of(2, 3), CountStrategy.EXACT);
+
+        assertThat(page1.getContent()).extracting("username").containsExactly("member2", "member3", "member4");
+        assertThat(page1.getContent()).extracting("teamName").containsExactly("teamA", "teamB", "teamA");
+        assertThat(page2.getContent()).extracting("username").containsExactly("member5", "member6", "member7");
+        //팀 없는 회원도 나와야함
+        assertThat(page3.getContent()).extracting("username").containsExactly("noTeam");
+        assertThat(page3.getContent().get(0).getTeamName()).isNull();
+        assertThat(page1.getTotal()).isEqualTo(7);
+        assertThat(page1.isHasNext()).isTrue();
+
+        //한 번에 조회(searchPage)도 같은 순서라 같은 페이지
+        for (CountedPage<MemberTeamDto> page : List.of(page1, page2, page3)) {
+            assertThat(memberRepository.searchPage(condition, PageRequest.of(page.getPage(), 3), CountStrategy.NONE)
+                    .getContent()).containsExactlyElementsOf(page.getContent());
+        }
+
+        //팀 조건이 있으면 id 조회 쪽에서 팀을 조인해서 거름
+        condition.setTeamName("teamA");
+        CountedPage<MemberTeamDto> teamPage = memberRepository.searchPageIdsFirst(condition, PageRequest.of(0, 2), CountStrategy.NONE);
+        assertThat(teamPage.getContent()).extracting("username").containsExactly("member2", "member4");
+        assertThat(teamPage.isHasNext()).isTrue();
+    }
+
+    //키셋 페이징, nextCursor로 끝까지 넘기면 정렬 순서대로 빠짐없이 나와야함
+    @Test
+    public void searchKeyset() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 20, teamA));
+        em.persist(new Member("member2", 10, teamA));
+        em.persist(new Member("member3", 20, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 30, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        KeysetSlice<MemberTeamDto> page1 = memberRepository.searchKeyset(condition, MemberKeysetSort.AGE, null, 2);
+        assertThat(page1.getContent()).extracting("username").containsExactly("member2", "member1");
+        assertThat(page1.isHasNext()).isTrue();
+
+        //커서에 정렬 기준이 들어있으므로 정렬 파라미터는 무시됨
+        KeysetSlice<MemberTeamDto> page2 = memberRepository.searchKeyset(condition, MemberKeysetSort.ID, page1.getNextCursor(), 2);
+        assertThat(page2.getContent()).extracting("username").containsExactly("member3", "member5");
+        assertThat(page2.isHasNext()).isTrue();
+
+        KeysetSlice<MemberTeamDto> page3 = memberRepository.searchKeyset(condition, MemberKeysetSort.AGE, page2.getNextCursor(), 2);
+        assertThat(page3.getContent()).extracting("username").containsExactly("member4");
+        assertThat(page3.isHasNext()).isFalse();
+        assertThat(page3.getNextCursor()).isNull();
+    }
+
+    //카운트 쿼리에서 팀 조인을 빼도 개수는 같아야함, 팀이 없는 회원도 세어야함
+    @Test
+    public void searchPageComplexCount() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30));
+        em.persist(new Member("member4", 40));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(15);
+
+        //두번째 페이지라 카운트 쿼리가 실행됨
+        Page<MemberTeamDto> noTeamCondition = memberRepository.searchPageComplex(condition, PageRequest.of(1, 1));
+        assertThat(noTeamCondition.getTotalElements()).isEqualTo(3);
+
+        condition.setTeamName("teamA");
+        Page<MemberTeamDto> teamCondition = memberRepository.searchPageComplex(condition, PageRequest.of(1, 1));
+        assertThat(teamCondition.getTotalElements()).isEqualTo(1);
+    }
+
     //스프링 데이터 JPA가 제공하는 Querydsl 기능
     //테이블이 한개면 추상화해서 쓸 수 있지만 테이블이 두 세개이고 조인이 들어가면 쓰기 번거롭
     @Test
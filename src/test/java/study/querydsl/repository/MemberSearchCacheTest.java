@@ -0,0 +1,128 @@
+package study.querydsl.repository;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.config.MemberSearchCache;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 검색 결과 캐시
+ * 쓰기 트랜잭션 안에서는 캐시를 건너뛰므로 @Transactional 없이 데이터를 커밋해서 확인하고 끝나면 지움
+ * 커밋된 데이터라 검색, 벌크 update, 삭제는 모두 cacheTeam으로 한정
+ * 캐시 통계는 캐시가 살아있는 동안 계속 쌓이므로(clear로 안 지워짐) 테스트 시작 시점과의 차이로 확인
+ */
+@SpringBootTest(properties = "querydsl.search.cache.methods=MemberJpaRepository.search")
+class MemberSearchCacheTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    Team cacheTeam;
+
+    CacheStats snapshot;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate.executeWithoutResult(status -> {
+            cacheTeam = new Team("cacheTeam");
+            em.persist(cacheTeam);
+            em.persist(new Member("cacheMember1", 10, cacheTeam));
+            em.persist(new Member("cacheMember2", 20, cacheTeam));
+        });
+        cache().clear();
+        snapshot = cache().getNativeCache().stats();
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(member).where(member.team.id.eq(cacheTeam.getId())).execute();
+            queryFactory.delete(team).where(team.id.eq(cacheTeam.getId())).execute();
+        });
+    }
+
+    @Test
+    public void cacheHitForSameCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("cacheTeam");
+
+        //빈 문자열은 조건이 없는 것과 같으므로 같은 키
+        MemberSearchCondition sameCondition = new MemberSearchCondition();
+        sameCondition.setTeamName("cacheTeam");
+        sameCondition.setUsername("");
+
+        memberJpaRepository.search(condition);
+        List<MemberTeamDto> cached = memberJpaRepository.search(sameCondition);
+
+        assertThat(cached).hasSize(2);
+        assertThat(stats().hitCount()).isEqualTo(1);
+        assertThat(stats().missCount()).isEqualTo(1);
+    }
+
+    //저장하면 insert가 나가면서 캐시가 비워져야함
+    @Test
+    public void evictOnSave() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("cacheTeam");
+        assertThat(memberJpaRepository.search(condition)).hasSize(2);
+
+        transactionTemplate.executeWithoutResult(status -> memberJpaRepository.save(
+                new Member("cacheMember3", 30, em.getReference(Team.class, cacheTeam.getId()))));
+
+        assertThat(memberJpaRepository.search(condition)).hasSize(3);
+        assertThat(stats().hitCount()).isEqualTo(0);
+    }
+
+    //벌크 update도 영속성 컨텍스트를 거치지 않지만 SQL로 잡혀서 캐시가 비워져야함
+    @Test
+    public void evictOnBulkUpdate() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("cacheTeam");
+        condition.setAgeGoe(15);
+        assertThat(memberJpaRepository.search(condition)).hasSize(1);
+
+        transactionTemplate.executeWithoutResult(status -> new JPAQueryFactory(em)
+                .update(member)
+                .set(member.age, member.age.add(10))
+                .where(member.team.id.eq(cacheTeam.getId()))
+                .execute());
+
+        assertThat(memberJpaRepository.search(condition)).hasSize(2);
+    }
+
+    private CaffeineCache cache() {
+        return (CaffeineCache) cacheManager.getCache(MemberSearchCache.NAME);
+    }
+
+    private CacheStats stats() {
+        return cache().getNativeCache().stats().minus(snapshot);
+    }
+}
@@ -0,0 +1,198 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.config.SeedProperties;
+import study.querydsl.dto.CountStrategy;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.seed.MemberSeeder;
+import study.querydsl.support.CapturedStatements;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 검색 조건 조합마다 실제로 나가는 SQL을 잡아서 EXPLAIN으로 실행 계획 확인
+ * 회원, 팀 중 하나라도 테이블 전체를 훑으면(H2 tableScan, MySQL type=ALL) 실패
+ *
+ * 행이 적으면 db가 인덱스보다 전체 스캔을 고르므로 회원 2만명, 팀 100개를 넣고 시작
+ * 조건이 하나도 없는 검색은 어차피 전체를 읽으므로 제외
+ */
+@SpringBootTest
+@Import(CapturedStatements.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MemberSearchPlanTest {
+
+    private static final int MEMBERS = 20_000;
+    private static final int TEAMS = 100;
+
+    /** use_sql_comments로 붙는 앞쪽 JPQL 주석 */
+    private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*.*?\\*/\\s*", Pattern.DOTALL);
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberSeeder memberSeeder;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    CapturedStatements capturedStatements;
+
+    private String databaseProduct;
+
+    @BeforeAll
+    public void before() {
+        SeedProperties properties = new SeedProperties();
+        properties.setMembers(MEMBERS);
+        properties.setTeams(TEAMS);
+        properties.setAgeDistribution(SeedProperties.AgeDistribution.UNIFORM);
+        properties.setAgeMin(0);
+        properties.setAgeMax(99);
+        properties.setFlushSize(1_000);
+        properties.setThreads(4);
+        memberSeeder.seed(properties);
+
+        databaseProduct = jdbcTemplate.execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if ("MySQL".equals(databaseProduct)) {
+            //방금 넣은 행으로 인덱스 통계를 갱신해야 옵티마이저가 제대로 고름
+            jdbcTemplate.execute("analyze table member, team");
+        }
+    }
+
+    @AfterAll
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(member).execute();
+            queryFactory.delete(team).execute();
+        });
+    }
+
+    /** 회원명, 팀명, 나이 이상, 나이 이하의 모든 조합(전부 비어있는 것 제외) */
+    Stream<MemberSearchCondition> conditions() {
+        List<MemberSearchCondition> conditions = new ArrayList<>();
+        for (int mask = 1; mask < 16; mask++) {
+            MemberSearchCondition condition = new MemberSearchCondition();
+            if ((mask & 1) != 0) {
+                condition.setUsername("member123");
+            }
+            if ((mask & 2) != 0) {
+                condition.setTeamName("team7");
+            }
+            //나이 범위는 전체의 5%만 걸리게, 넓은 범위면 전체 스캔이 맞는 선택이라
+            boolean goe = (mask & 4) != 0;
+            boolean loe = (mask & 8) != 0;
+            if (goe && loe) {
+                condition.setAgeGoe(40);
+                condition.setAgeLoe(44);
+            } else if (goe) {
+                condition.setAgeGoe(95);
+            } else if (loe) {
+                condition.setAgeLoe(4);
+            }
+            conditions.add(condition);
+        }
+        return conditions.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("conditions")
+    public void noTableScan(MemberSearchCondition condition) {
+        List<String> statements = new ArrayList<>();
+        statements.addAll(capture(() -> memberRepository.search(condition)));
+        statements.addAll(capture(() -> memberJpaRepository.search(condition)));
+        statements.addAll(capture(() -> memberJpaRepository.searchByBuilder(condition)));
+        //두번째 페이지라 카운트 쿼리도 같이 나감
+        statements.addAll(capture(() -> memberRepository.searchPage(condition, PageRequest.of(1, 10),
+                CountStrategy.EXACT)));
+
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            List<Map<String, Object>> plan = explain(sql, condition);
+            assertThat(isTableScan(plan))
+                    .as("%s%n%s%n%s", condition, sql, plan)
+                    .isFalse();
+        }
+    }
+
+    private List<String> capture(Runnable search) {
+        //팀 이름 조건 검색은 쿼리 캐시에 걸리면 SQL이 안나가므로 비우고 실행
+        emf.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        capturedStatements.drain();
+        search.run();
+        return capturedStatements.drain();
+    }
+
+    /**
+     * 조건 값은 where 절 순서(회원명, 팀명, 나이 이상, 나이 이하)대로 바인딩
+     * 뒤에 남는 ?는 offset, limit이라 아무 숫자나 넣음
+     */
+    private List<Map<String, Object>> explain(String sql, MemberSearchCondition condition) {
+        List<Object> args = new ArrayList<>();
+        if (condition.getUsername() != null) {
+            args.add(condition.getUsername());
+        }
+        if (condition.getTeamName() != null) {
+            args.add(condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            args.add(condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            args.add(condition.getAgeLoe());
+        }
+        String statement = LEADING_COMMENT.matcher(sql).replaceFirst("");
+        long placeholders = statement.chars().filter(c -> c == '?').count();
+        while (args.size() < placeholders) {
+            args.add(10);
+        }
+        return jdbcTemplate.queryForList("explain " + statement, args.toArray());
+    }
+
+    private boolean isTableScan(List<Map<String, Object>> plan) {
+        if ("MySQL".equals(databaseProduct)) {
+            return plan.stream().anyMatch(row -> "ALL".equals(row.get("type")));
+        }
+        //H2는 계획이 한 줄 문자열, 인덱스를 못 쓰면 /* PUBLIC.MEMBER.tableScan */
+        return plan.stream()
+                .flatMap(row -> row.values().stream())
+                .anyMatch(value -> String.valueOf(value).contains("tableScan"));
+    }
+}
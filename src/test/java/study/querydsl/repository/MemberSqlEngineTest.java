@@ -0,0 +1,105 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.CapturedStatements;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * querydsl.search.engine=sql 일때 MemberRepository.search가 고르는 경로
+ * 읽기 전용 트랜잭션: querydsl-sql(하이버네이트를 거치지 않으므로 잡히는 SQL이 없음)
+ * 쓰기 트랜잭션: JPA(flush 안된 회원도 보여야 함)
+ *
+ * 읽기 전용 트랜잭션에서 보이도록 데이터를 커밋하고 끝나고 지움
+ */
+@SpringBootTest(properties = "querydsl.search.engine=sql")
+@Import(CapturedStatements.class)
+class MemberSqlEngineTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    CapturedStatements capturedStatements;
+
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            Team engineTeam = new Team("engineTeam");
+            em.persist(engineTeam);
+            em.persist(new Member("engineMember1", 10, engineTeam));
+            em.persist(new Member("engineMember2", 20, engineTeam));
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.setReadOnly(false);
+        transactionTemplate.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(member).where(member.username.startsWith("engineMember")).execute();
+            queryFactory.delete(team).where(team.name.eq("engineTeam")).execute();
+        });
+    }
+
+    @Test
+    public void readOnlyTransactionUsesSql() {
+        transactionTemplate.setReadOnly(true);
+        capturedStatements.drain();
+
+        List<MemberTeamDto> result = transactionTemplate.execute(status -> memberRepository.search(condition()));
+
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("engineMember1", "engineMember2");
+        assertThat(capturedStatements.drain()).isEmpty();
+    }
+
+    @Test
+    public void readWriteTransactionFallsBackToJpa() {
+        List<MemberTeamDto> result = transactionTemplate.execute(status -> {
+            Team engineTeam = new JPAQueryFactory(em).selectFrom(team).where(team.name.eq("engineTeam")).fetchOne();
+            //flush 전이라 querydsl-sql로는 보이지 않는 회원
+            em.persist(new Member("engineMember3", 30, engineTeam));
+            capturedStatements.drain();
+
+            List<MemberTeamDto> found = memberRepository.search(condition());
+            status.setRollbackOnly();
+            return found;
+        });
+
+        assertThat(result).extracting("username")
+                .containsExactlyInAnyOrder("engineMember1", "engineMember2", "engineMember3");
+        assertThat(capturedStatements.drain()).isNotEmpty();
+    }
+
+    private MemberSearchCondition condition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("engineTeam");
+        return condition;
+    }
+}
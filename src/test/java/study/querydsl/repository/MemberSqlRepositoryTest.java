@@ -0,0 +1,76 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** querydsl-sql 검색이 JPA 검색과 같은 결과를 내는지 */
+@SpringBootTest
+@Transactional
+class MemberSqlRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberSqlRepository memberSqlRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        //팀 이름 검색 결과를 sqlMember4 하나로 확인하므로, 커밋되어 남아있는 teamB 회원과 겹치지 않는 팀 이름
+        Team teamA = new Team("sqlTeamA");
+        Team teamB = new Team("sqlTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("sqlMember1", 10, teamA));
+        em.persist(new Member("sqlMember2", 20, teamA));
+        em.persist(new Member("sqlMember3", 30, teamB));
+        em.persist(new Member("sqlMember4", 40, teamB));
+        em.persist(new Member("sqlNoTeam", 50));
+
+        //querydsl-sql은 영속성 컨텍스트를 거치지 않으므로 db에 반영해둠
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void sameAsJpa() {
+        MemberSearchCondition all = new MemberSearchCondition();
+
+        MemberSearchCondition teamB = new MemberSearchCondition();
+        teamB.setTeamName("sqlTeamB");
+        teamB.setAgeGoe(35);
+
+        MemberSearchCondition byAge = new MemberSearchCondition();
+        byAge.setAgeGoe(20);
+        byAge.setAgeLoe(50);
+
+        MemberSearchCondition byUsername = new MemberSearchCondition();
+        byUsername.setUsername("sqlMember2");
+
+        for (MemberSearchCondition condition : List.of(all, teamB, byAge, byUsername)) {
+            List<MemberTeamDto> sql = memberSqlRepository.search(condition);
+            List<MemberTeamDto> jpa = memberRepository.search(condition);
+            assertThat(sql).containsExactlyInAnyOrderElementsOf(jpa);
+        }
+
+        List<MemberTeamDto> result = memberSqlRepository.search(teamB);
+        assertThat(result).extracting("username").containsExactly("sqlMember4");
+        assertThat(result.get(0).getTeamName()).isEqualTo("sqlTeamB");
+    }
+}
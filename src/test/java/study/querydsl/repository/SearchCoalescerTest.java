@@ -0,0 +1,99 @@
+package study.querydsl.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** 같은 검색 동시 요청 합치기, 여러 스레드로 같은 키를 동시에 호출 */
+class SearchCoalescerTest {
+
+    private static final int THREADS = 8;
+
+    SimpleMeterRegistry meterRegistry;
+    SearchCoalescer coalescer;
+
+    @BeforeEach
+    public void before() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new SearchCoalescer(meterRegistry);
+    }
+
+    @Test
+    public void identicalConcurrentCallsShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(pool.submit(() -> coalescer.execute("same", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+
+            //나머지 스레드가 모두 먼저 실행한 요청에 붙을 때까지 쿼리를 끝내지 않음
+            long deadline = System.currentTimeMillis() + 5000;
+            while (coalesced() < THREADS - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(coalesced()).isEqualTo(THREADS - 1);
+    }
+
+    //끝난 다음 들어온 요청은 다시 실행, 결과를 저장하지 않음
+    @Test
+    public void sequentialCallsAreNotCoalesced() {
+        AtomicInteger executions = new AtomicInteger();
+
+        coalescer.execute("same", executions::incrementAndGet);
+        coalescer.execute("same", executions::incrementAndGet);
+
+        assertThat(executions.get()).isEqualTo(2);
+        assertThat(coalesced()).isZero();
+    }
+
+    @Test
+    public void failureIsRethrownAndKeyReleased() {
+        assertThatThrownBy(() -> coalescer.execute("same", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(coalescer.execute("same", () -> "ok")).isEqualTo("ok");
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("querydsl.search.coalesced").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package study.querydsl.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.InvalidSortException;
+import study.querydsl.dto.TeamWithMembersDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** 팀 pageTeam0 ~ 4, 팀 i에는 회원 i명 */
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    /** 다른 테스트가 커밋하고 남긴 팀(QuerydslBasicTest.bulkUpdate의 teamA, teamB 등) 수 */
+    long existingTeams;
+
+    @BeforeEach
+    public void before() {
+        existingTeams = teamRepository.count();
+        for (int i = 0; i < 5; i++) {
+            Team team = new Team("pageTeam" + i);
+            em.persist(team);
+            for (int j = 0; j < i; j++) {
+                em.persist(new Member("pageMember" + i + "_" + j, 10 * i + j, team));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void searchTeamMembers() {
+        int total = (int) existingTeams + 5;
+        Page<TeamWithMembersDto> page = teamRepository.searchTeamMembers(null,
+                PageRequest.of(0, total, Sort.by("name")));
+
+        assertThat(page.getTotalElements()).isEqualTo(total);
+        //남아있는 다른 팀은 빼고 이 테스트의 팀만 확인
+        List<TeamWithMembersDto> ours = page.getContent().stream()
+                .filter(dto -> dto.getTeamName().startsWith("pageTeam"))
+                .collect(Collectors.toList());
+        assertThat(ours).extracting("teamName")
+                .containsExactly("pageTeam0", "pageTeam1", "pageTeam2", "pageTeam3", "pageTeam4");
+        //회원 없는 팀은 빈 목록
+        assertThat(ours.get(0).getMembers()).isEmpty();
+        assertThat(ours.get(2).getMembers()).extracting("username")
+                .containsExactly("pageMember2_0", "pageMember2_1");
+
+        Page<TeamWithMembersDto> firstPage = teamRepository.searchTeamMembers(null,
+                PageRequest.of(0, 3, Sort.by("name")));
+        assertThat(firstPage.getContent()).hasSize(3);
+        assertThat(firstPage.getTotalElements()).isEqualTo(total);
+
+        Page<TeamWithMembersDto> byName = teamRepository.searchTeamMembers("pageTeam4", PageRequest.of(0, 10));
+        assertThat(byName.getContent()).hasSize(1);
+        assertThat(byName.getContent().get(0).getMembers()).hasSize(4);
+    }
+
+    //Team 필드가 아닌 정렬(/teams?sort=teamName)은 쿼리를 만들기 전에 거절
+    @Test
+    public void rejectUnknownSort() {
+        assertThatThrownBy(() -> teamRepository.searchTeamMembers(null,
+                PageRequest.of(0, 3, Sort.by("teamName"))))
+                .isInstanceOf(InvalidSortException.class);
+    }
+
+    //페이지 크기가 커져도 팀, 회원, 카운트 세 번
+    @Test
+    public void constantRoundTrips() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        for (int size = 1; size <= 4; size++) {
+            statistics.clear();
+            Page<TeamWithMembersDto> page = teamRepository.searchTeamMembers(null,
+                    PageRequest.of(0, size, Sort.by("name")));
+
+            assertThat(page.getContent()).hasSize(size);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package study.querydsl.seed;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.config.SeedProperties;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 샘플 데이터 생성, 스레드마다 트랜잭션을 따로 커밋하므로 @Transactional 롤백이 안됨
+ * 다른 테스트가 남긴 행과 이름이 겹치므로(teamA, member0 ...) 이번에 만든 팀(SeedReport.teamIds)으로만 세고 지움
+ */
+@SpringBootTest
+class MemberSeederTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MemberSeeder memberSeeder;
+
+    List<Long> seededTeamIds = List.of();
+
+    @AfterEach
+    public void after() {
+        if (seededTeamIds.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(member).where(member.team.id.in(seededTeamIds)).execute();
+            queryFactory.delete(team).where(team.id.in(seededTeamIds)).execute();
+        });
+    }
+
+    @Test
+    public void seedWithThreads() {
+        SeedProperties properties = new SeedProperties();
+        properties.setMembers(1_000);
+        properties.setTeams(3);
+        properties.setAgeDistribution(SeedProperties.AgeDistribution.NORMAL);
+        properties.setAgeMin(20);
+        properties.setAgeMax(40);
+        properties.setFlushSize(100);
+        properties.setThreads(4);
+
+        MemberSeeder.SeedReport report = memberSeeder.seed(properties);
+        seededTeamIds = report.getTeamIds();
+
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+        assertThat(queryFactory.select(team.count()).from(team).where(team.id.in(seededTeamIds)).fetchOne())
+                .isEqualTo(3);
+        //팀은 번갈아 가며 배정, 모든 회원이 이번에 만든 팀 중 하나에 들어감
+        assertThat(queryFactory.select(member.count()).from(member).where(member.team.id.in(seededTeamIds))
+                .fetchOne()).isEqualTo(1_000);
+        assertThat(queryFactory.select(member.age.min()).from(member).where(member.team.id.in(seededTeamIds))
+                .fetchOne()).isGreaterThanOrEqualTo(20);
+        assertThat(queryFactory.select(member.age.max()).from(member).where(member.team.id.in(seededTeamIds))
+                .fetchOne()).isLessThanOrEqualTo(40);
+        assertThat(report.getRowsPerSecond()).isPositive();
+    }
+}
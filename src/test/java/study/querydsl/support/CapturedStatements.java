@@ -0,0 +1,29 @@
+package study.querydsl.support;
+
+import study.querydsl.config.SqlStatementListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 하이버네이트가 실행하는 SQL을 모아둠, 테스트 클래스에 @Import(CapturedStatements.class)
+ * 측정할 호출 전에 drain()으로 비우고, 호출 후 drain()으로 그 사이 SQL을 꺼냄
+ */
+public class CapturedStatements implements SqlStatementListener {
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void onStatement(String sql) {
+        statements.add(sql);
+    }
+
+    public List<String> drain() {
+        synchronized (statements) {
+            List<String> drained = new ArrayList<>(statements);
+            statements.clear();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package study.querydsl.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import study.querydsl.config.NPlusOneDetector;
+import study.querydsl.config.NPlusOneProperties;
+
+/**
+ * N+1 회귀 검사, @SpringBootTest 테스트에 @ExtendWith(NPlusOneExtension.class)
+ * 테스트마다 NPlusOneDetector 기록을 시작하고, 끝날때 assertDetected로 확인하지 않은 N+1이 있으면 실패
+ * 테스트 메서드 파라미터로 NPlusOneRecording을 받아서 직접 검증
+ */
+public class NPlusOneExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(NPlusOneExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        ApplicationContext applicationContext = SpringExtension.getApplicationContext(context);
+        NPlusOneDetector detector = applicationContext.getBean(NPlusOneDetector.class);
+        int threshold = applicationContext.getBean(NPlusOneProperties.class).getThreshold();
+
+        context.getStore(NAMESPACE).put(NPlusOneRecording.class,
+                new NPlusOneRecording(detector.startRecording(), threshold));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        NPlusOneRecording recording =
+                context.getStore(NAMESPACE).remove(NPlusOneRecording.class, NPlusOneRecording.class);
+        try {
+            recording.verify();
+        } finally {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == NPlusOneRecording.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext.getStore(NAMESPACE).get(NPlusOneRecording.class, NPlusOneRecording.class);
+    }
+}
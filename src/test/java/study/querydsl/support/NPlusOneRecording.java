@@ -0,0 +1,62 @@
+package study.querydsl.support;
+
+import study.querydsl.config.NPlusOneDetector;
+import study.querydsl.config.NPlusOneDetector.Finding;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 테스트 하나 동안 모은 지연 로딩, NPlusOneExtension이 테스트 메서드 파라미터로 넘겨줌
+ * threshold(querydsl.n-plus-one.threshold) 이상 반복된 것만 N+1로 봄
+ */
+public class NPlusOneRecording {
+
+    private final NPlusOneDetector.Recording recording;
+
+    private final int threshold;
+
+    /** assertDetected로 확인한 경로, 테스트가 끝날때 검사에서 뺌 */
+    private final Set<String> expected = new HashSet<>();
+
+    NPlusOneRecording(NPlusOneDetector.Recording recording, int threshold) {
+        this.recording = recording;
+        this.threshold = threshold;
+    }
+
+    public List<Finding> findings() {
+        return recording.getFindings().stream()
+                .filter(finding -> finding.getCount() >= threshold)
+                .collect(Collectors.toList());
+    }
+
+    public void assertNone() {
+        assertThat(findings()).as("N+1").isEmpty();
+    }
+
+    /** path(Member.team)의 N+1이 있어야 함, 있으면 테스트 끝의 검사는 통과 */
+    public Finding assertDetected(String path) {
+        Finding finding = findings().stream()
+                .filter(f -> f.getPath().equals(path))
+                .findFirst()
+                .orElse(null);
+        assertThat(finding).as("N+1 on %s, recorded %s", path, recording.getFindings()).isNotNull();
+        expected.add(path);
+        return finding;
+    }
+
+    void verify() {
+        assertThat(findings())
+                .as("unexpected N+1")
+                .filteredOn(finding -> !expected.contains(finding.getPath()))
+                .isEmpty();
+    }
+
+    void close() {
+        recording.close();
+    }
+}